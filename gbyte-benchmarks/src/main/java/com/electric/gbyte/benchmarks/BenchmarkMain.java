@@ -0,0 +1,25 @@
+package com.electric.gbyte.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 运行基准测试，默认开启GC profiler输出每次操作的分配字节数
+ * <p>
+ * 参数与JMH命令行相同，例如 java -jar target/benchmarks.jar GByteBenchmark.decode
+ *
+ * @author bingo
+ */
+public final class BenchmarkMain {
+
+    private BenchmarkMain() {
+
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        new Runner(new OptionsBuilder().parent(commandLine).addProfiler(GCProfiler.class).build()).run();
+    }
+}
@@ -0,0 +1,98 @@
+package com.electric.gbyte.benchmarks;
+
+import com.electric.gbyte.GByteUtils;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link GByteUtils}中各种校验码的耗时
+ *
+ * @author bingo
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ChecksumBenchmark {
+
+    @Param({"16", "256", "1024"})
+    public int size;
+
+    private ByteBuf data;
+
+    @Setup
+    public void setUp() {
+        data = Unpooled.directBuffer(size);
+        for (int i = 0; i < size; i++) {
+            data.writeByte(i * 31 + 7);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        data.release();
+    }
+
+    @Benchmark
+    public int modBusCRC() {
+        return GByteUtils.modBusCRC(data.readerIndex(0));
+    }
+
+    @Benchmark
+    public int modBusCRCIndexed() {
+        return GByteUtils.modBusCRC(data, 0, size);
+    }
+
+    @Benchmark
+    public byte accSum() {
+        return GByteUtils.accSum(data.readerIndex(0));
+    }
+
+    @Benchmark
+    public byte getXor() {
+        return GByteUtils.getXor(data.readerIndex(0));
+    }
+
+    @Benchmark
+    public byte checksum() {
+        return GByteUtils.checksum(data.readerIndex(0));
+    }
+
+    @Benchmark
+    public byte accSumIndexed() {
+        return GByteUtils.accSum(data, 0, size);
+    }
+
+    @Benchmark
+    public byte getXorIndexed() {
+        return GByteUtils.getXor(data, 0, size);
+    }
+
+    @Benchmark
+    public byte checksumIndexed() {
+        return GByteUtils.checksum(data, 0, size);
+    }
+
+    /**
+     * 逐字节readByte的异或，作为按8字节处理的对照
+     */
+    @Benchmark
+    public byte getXorBytewise() {
+        ByteBuf buf = data.readerIndex(0);
+        byte temp = 0;
+        while (buf.isReadable()) {
+            temp ^= buf.readByte();
+        }
+        return temp;
+    }
+
+    @Benchmark
+    public int calculateChecksum() {
+        return GByteUtils.calculateChecksum(data.readerIndex(0));
+    }
+}
@@ -0,0 +1,98 @@
+package com.electric.gbyte.benchmarks;
+
+import com.electric.gbyte.decoder.BaseDecoder;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandlerContext;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.ByteOrder;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link BaseDecoder#findCompletePacket}从字节流中切分报文的耗时，报文之间可插入干扰字节以覆盖报文头查找
+ *
+ * @author bingo
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+@OperationsPerInvocation(DecoderBenchmark.FRAMES)
+public class DecoderBenchmark {
+
+    static final int FRAMES = 64;
+
+    private static final int HEADER = 0x68;
+
+    /**
+     * 每帧之前的干扰字节数
+     */
+    @Param({"0", "16", "1024"})
+    public int noise;
+
+    /**
+     * 每帧数据域长度
+     */
+    @Param({"32", "200"})
+    public int payload;
+
+    private ByteBuf stream;
+
+    private FrameDecoder decoder;
+
+    @Setup
+    public void setUp() {
+        stream = Unpooled.directBuffer();
+        for (int i = 0; i < FRAMES; i++) {
+            for (int j = 0; j < noise; j++) {
+                stream.writeByte((j & 0xff) == HEADER ? 0 : j);
+            }
+            // 报文头 + 长度 + 数据域 + 校验码
+            stream.writeByte(HEADER);
+            stream.writeByte(payload + 1);
+            for (int j = 0; j < payload; j++) {
+                stream.writeByte(j);
+            }
+            stream.writeByte(0x16);
+        }
+        decoder = new FrameDecoder();
+    }
+
+    @TearDown
+    public void tearDown() {
+        stream.release();
+    }
+
+    @Benchmark
+    public void findCompletePacket(Blackhole blackhole) {
+        ByteBuf in = stream.readerIndex(0);
+        ByteBuf packet;
+        while ((packet = decoder.find(in)) != null) {
+            blackhole.consume(packet);
+        }
+    }
+
+    private static final class FrameDecoder extends BaseDecoder {
+
+        FrameDecoder() {
+            super(ByteOrder.LITTLE_ENDIAN, 1024, 1, 1, 0, 0, true, HEADER, 1);
+        }
+
+        ByteBuf find(ByteBuf in) {
+            return findCompletePacket(in);
+        }
+
+        @Override
+        protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) {
+            ByteBuf packet = findCompletePacket(in);
+            if (packet != null) {
+                out.add(packet.retain());
+            }
+        }
+    }
+}
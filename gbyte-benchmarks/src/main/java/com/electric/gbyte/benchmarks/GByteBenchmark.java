@@ -0,0 +1,263 @@
+package com.electric.gbyte.benchmarks;
+
+import com.electric.gbyte.GByte;
+import com.electric.gbyte.GByteBuilder;
+import com.electric.gbyte.GByteUtils;
+import com.electric.gbyte.LazyMessage;
+import com.electric.gbyte.MessageRecycler;
+import com.electric.gbyte.MessageView;
+import com.electric.gbyte.decoder.FrameChecksum;
+import com.electric.gbyte.decoder.FrameWriter;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteOrder;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link GByte#fromByteBuf}和{@link GByte#toByteBuf}在典型报文上的耗时
+ *
+ * @author bingo
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GByteBenchmark {
+
+    private static final int VERSION = 1;
+
+    /**
+     * 字段读写方式：reflective为反射，methodHandle为字段的MethodHandle
+     */
+    @Param({"reflective", "methodHandle"})
+    public String accessor;
+
+    private GByte gByte;
+
+    private final Messages.Flat flat = Messages.Flat.sample();
+
+    private final Messages.Strings strings = Messages.Strings.sample();
+
+    private final Messages.AddressList addressList = Messages.AddressList.sample();
+
+    private final Messages.Bytes bytes = Messages.Bytes.sample();
+
+    private final Messages.Decimals decimals = Messages.Decimals.sample();
+
+    private final Messages.Fixeds fixeds = Messages.Fixeds.sample();
+
+    private ByteBuf flatIn;
+
+    private ByteBuf stringsIn;
+
+    private ByteBuf addressListIn;
+
+    private ByteBuf bytesIn;
+
+    private ByteBuf decimalsIn;
+
+    private ByteBuf fixedsIn;
+
+    private ByteBuf statusIn;
+
+    private ByteBuf out;
+
+    private GByte internGByte;
+
+    private MessageView<Messages.Status> statusView;
+
+    private MessageRecycler<Messages.Status> statusRecycler;
+
+    private int gunNoField;
+
+    private int stateField;
+
+    private final ByteBuf header = Unpooled.wrappedBuffer(new byte[14]);
+
+    private final FrameWriter frameWriter = new FrameWriter(ByteOrder.LITTLE_ENDIAN, 0, 0, 0, 2, FrameChecksum.XOR);
+
+    @Setup
+    public void setUp() {
+        GByteBuilder builder = new GByteBuilder();
+        if ("methodHandle".equals(accessor)) {
+            builder.enableMethodHandleAccessor();
+        }
+        gByte = builder.create();
+        internGByte = builder.enableStringIntern().create();
+
+        flatIn = encode(flat);
+        stringsIn = encode(strings);
+        addressListIn = encode(addressList);
+        bytesIn = encode(bytes);
+        decimalsIn = encode(decimals);
+        fixedsIn = encode(fixeds);
+        statusIn = encode(Messages.Status.sample());
+        out = Unpooled.directBuffer(1024);
+        statusView = gByte.view(Messages.Status.class, VERSION);
+        statusRecycler = new MessageRecycler<>(gByte, Messages.Status.class, VERSION);
+        gunNoField = statusView.field("gunNo");
+        stateField = statusView.field("state");
+    }
+
+    @TearDown
+    public void tearDown() {
+        flatIn.release();
+        stringsIn.release();
+        addressListIn.release();
+        bytesIn.release();
+        decimalsIn.release();
+        fixedsIn.release();
+        statusIn.release();
+        out.release();
+    }
+
+    private ByteBuf encode(Object message) {
+        ByteBuf buf = Unpooled.directBuffer(1024);
+        gByte.toByteBuf(buf, message, VERSION);
+        return buf;
+    }
+
+    @Benchmark
+    public Messages.Flat decodeFlat() {
+        return gByte.fromByteBuf(flatIn.readerIndex(0), Messages.Flat.class, VERSION);
+    }
+
+    @Benchmark
+    public ByteBuf encodeFlat() {
+        gByte.toByteBuf(out.clear(), flat, VERSION);
+        return out;
+    }
+
+    /**
+     * 原先每条下行报文分配一个非池化的堆缓冲区
+     */
+    @Benchmark
+    public void encodeFlatUnpooled() {
+        ByteBuf buf = Unpooled.buffer();
+        gByte.toByteBuf(buf, flat, VERSION);
+        buf.release();
+    }
+
+    @Benchmark
+    public void encodeFlatPooled() {
+        gByte.encode(PooledByteBufAllocator.DEFAULT, flat, VERSION).release();
+    }
+
+    /**
+     * 原先拷贝报文头，与数据域、校验码分别包装后再写入
+     */
+    @Benchmark
+    public ByteBuf encodeFrameWrapped() {
+        ByteBuf dataOut = Unpooled.buffer(64);
+        gByte.toByteBuf(dataOut, flat, VERSION);
+        int length = dataOut.readableBytes();
+        ByteBuf headerAndData = Unpooled.wrappedBuffer(header.copy(), dataOut);
+        byte checkCode = GByteUtils.getXor(headerAndData.slice(2, length + 12));
+        ByteBuf frameData = Unpooled.wrappedBuffer(headerAndData, Unpooled.wrappedBuffer(new byte[]{checkCode}));
+        out.clear().writeBytes(frameData);
+        frameData.release();
+        return out;
+    }
+
+    @Benchmark
+    public ByteBuf encodeFrameWriter() {
+        frameWriter.write(out.clear(), header, gByte, flat, VERSION);
+        return out;
+    }
+
+    @Benchmark
+    public Messages.Strings decodeStrings() {
+        return gByte.fromByteBuf(stringsIn.readerIndex(0), Messages.Strings.class, VERSION);
+    }
+
+    @Benchmark
+    public Messages.Strings decodeStringsInterned() {
+        return internGByte.fromByteBuf(stringsIn.readerIndex(0), Messages.Strings.class, VERSION);
+    }
+
+    @Benchmark
+    public ByteBuf encodeStrings() {
+        gByte.toByteBuf(out.clear(), strings, VERSION);
+        return out;
+    }
+
+    @Benchmark
+    public Messages.AddressList decodeAddressList() {
+        return gByte.fromByteBuf(addressListIn.readerIndex(0), Messages.AddressList.class, VERSION);
+    }
+
+    @Benchmark
+    public ByteBuf encodeAddressList() {
+        gByte.toByteBuf(out.clear(), addressList, VERSION);
+        return out;
+    }
+
+    @Benchmark
+    public Messages.Bytes decodeBytes() {
+        return gByte.fromByteBuf(bytesIn.readerIndex(0), Messages.Bytes.class, VERSION);
+    }
+
+    @Benchmark
+    public ByteBuf encodeBytes() {
+        gByte.toByteBuf(out.clear(), bytes, VERSION);
+        return out;
+    }
+
+    @Benchmark
+    public Messages.Decimals decodeDecimals() {
+        return gByte.fromByteBuf(decimalsIn.readerIndex(0), Messages.Decimals.class, VERSION);
+    }
+
+    @Benchmark
+    public ByteBuf encodeDecimals() {
+        gByte.toByteBuf(out.clear(), decimals, VERSION);
+        return out;
+    }
+
+    @Benchmark
+    public Messages.Fixeds decodeFixeds() {
+        return gByte.fromByteBuf(fixedsIn.readerIndex(0), Messages.Fixeds.class, VERSION);
+    }
+
+    @Benchmark
+    public ByteBuf encodeFixeds() {
+        gByte.toByteBuf(out.clear(), fixeds, VERSION);
+        return out;
+    }
+
+    /**
+     * 完整解码后只读取枪号和状态
+     */
+    @Benchmark
+    public int filterStatus() {
+        Messages.Status status = gByte.fromByteBuf(statusIn.readerIndex(0), Messages.Status.class, VERSION);
+        return status.getGunNo() * 16 + status.getState();
+    }
+
+    @Benchmark
+    public int filterStatusLazy() {
+        LazyMessage<Messages.Status> status = gByte.lazy(statusIn.readerIndex(0), Messages.Status.class, VERSION);
+        int result = status.getInt("gunNo") * 16 + status.getInt("state");
+        status.release();
+        return result;
+    }
+
+    @Benchmark
+    public int filterStatusView() {
+        MessageView<Messages.Status> status = statusView.wrap(statusIn, 0);
+        return status.getInt(gunNoField) * 16 + status.getInt(stateField);
+    }
+
+    @Benchmark
+    public int filterStatusRecycled() {
+        Messages.Status status = statusRecycler.decode(statusIn.readerIndex(0));
+        int result = status.getGunNo() * 16 + status.getState();
+        statusRecycler.recycle(status);
+        return result;
+    }
+}
@@ -0,0 +1,279 @@
+package com.electric.gbyte.benchmarks;
+
+import com.electric.gbyte.Constant;
+import com.electric.gbyte.Fixed;
+import com.electric.gbyte.annotations.GByteField;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 基准测试使用的典型报文
+ *
+ * @author bingo
+ */
+public final class Messages {
+
+    private Messages() {
+
+    }
+
+    /**
+     * 纯数字报文，覆盖各种长度和字节序
+     */
+    @Data
+    public static class Flat {
+
+        @GByteField(length = 1)
+        private int gunNo;
+
+        @GByteField(length = 2)
+        private int voltage;
+
+        @GByteField(length = 2, littleEndian = false)
+        private int current;
+
+        @GByteField(length = 3)
+        private int duration;
+
+        @GByteField(length = 4)
+        private int energy;
+
+        @GByteField(length = 4, offsetType = Constant.NUMBER_OFFSET_SUBTRACT, offsetNum = 50)
+        private int temperature;
+
+        @GByteField(length = 8)
+        private long timestamp;
+
+        @GByteField(length = 1)
+        private byte status;
+
+        @GByteField(length = 1)
+        private boolean charging;
+
+        static Flat sample() {
+            Flat flat = new Flat();
+            flat.setGunNo(2);
+            flat.setVoltage(3800);
+            flat.setCurrent(1250);
+            flat.setDuration(86399);
+            flat.setEnergy(123456789);
+            flat.setTemperature(36);
+            flat.setTimestamp(1634567890123L);
+            flat.setStatus((byte) 3);
+            flat.setCharging(true);
+            return flat;
+        }
+    }
+
+    /**
+     * 定长ASCII和BCD字符串
+     */
+    @Data
+    public static class Strings {
+
+        @GByteField(length = 8, stringType = Constant.STRING_BCD)
+        private String pileCode;
+
+        @GByteField(length = 16, stringType = Constant.STRING_BCD)
+        private String orderNo;
+
+        @GByteField(length = 17)
+        private String vin;
+
+        @GByteField(length = 15)
+        private String ip;
+
+        static Strings sample() {
+            Strings strings = new Strings();
+            strings.setPileCode("3201020304050607");
+            strings.setOrderNo("32010203040506072110181200000001");
+            strings.setVin("LSVAU2180N2183294");
+            strings.setIp("192.168.100.200");
+            return strings;
+        }
+    }
+
+    @Data
+    public static class Address {
+
+        @GByteField(length = 15)
+        private String ip;
+
+        @GByteField(length = 2, littleEndian = false)
+        private int port;
+    }
+
+    /**
+     * 自定义对象集合
+     */
+    @Data
+    public static class AddressList {
+
+        @GByteField(length = 1)
+        private int count;
+
+        @GByteField(length = 8)
+        private List<Address> addressList;
+
+        static AddressList sample() {
+            List<Address> list = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                Address address = new Address();
+                address.setIp("10.0.0." + i);
+                address.setPort(8000 + i);
+                list.add(address);
+            }
+            AddressList addressList = new AddressList();
+            addressList.setCount(list.size());
+            addressList.setAddressList(list);
+            return addressList;
+        }
+    }
+
+    /**
+     * 透传的字节数组
+     */
+    @Data
+    public static class Bytes {
+
+        @GByteField(length = 2)
+        private int index;
+
+        @GByteField(length = 256)
+        private byte[] data;
+
+        static Bytes sample() {
+            byte[] data = new byte[256];
+            for (int i = 0; i < data.length; i++) {
+                data[i] = (byte) i;
+            }
+            Bytes bytes = new Bytes();
+            bytes.setIndex(7);
+            bytes.setData(data);
+            return bytes;
+        }
+    }
+
+    /**
+     * 按倍率缩放的金额、电量
+     */
+    @Data
+    public static class Decimals {
+
+        @GByteField(length = 4, offsetType = Constant.NUMBER_OFFSET_DIVIDE, offsetNum = 10000)
+        private BigDecimal electricity;
+
+        @GByteField(length = 4, offsetType = Constant.NUMBER_OFFSET_DIVIDE, offsetNum = 100)
+        private BigDecimal amount;
+
+        @GByteField(length = 2, offsetType = Constant.NUMBER_OFFSET_DIVIDE, offsetNum = 10)
+        private BigDecimal voltage;
+
+        @GByteField(length = 2, offsetType = Constant.NUMBER_OFFSET_DIVIDE, offsetNum = 1000)
+        private BigDecimal current;
+
+        static Decimals sample() {
+            Decimals decimals = new Decimals();
+            decimals.setElectricity(new BigDecimal("12.3456"));
+            decimals.setAmount(new BigDecimal("98.76"));
+            decimals.setVoltage(new BigDecimal("380.5"));
+            decimals.setCurrent(new BigDecimal("32.125"));
+            return decimals;
+        }
+    }
+
+    /**
+     * 与{@link Decimals}布局相同，字段为定点小数
+     */
+    @Data
+    public static class Fixeds {
+
+        @GByteField(length = 4, offsetType = Constant.NUMBER_OFFSET_DIVIDE, offsetNum = 10000)
+        private Fixed electricity;
+
+        @GByteField(length = 4, offsetType = Constant.NUMBER_OFFSET_DIVIDE, offsetNum = 100)
+        private Fixed amount;
+
+        @GByteField(length = 2, offsetType = Constant.NUMBER_OFFSET_DIVIDE, offsetNum = 10)
+        private Fixed voltage;
+
+        @GByteField(length = 2, offsetType = Constant.NUMBER_OFFSET_DIVIDE, offsetNum = 1000)
+        private Fixed current;
+
+        static Fixeds sample() {
+            Fixeds fixeds = new Fixeds();
+            fixeds.setElectricity(Fixed.parse("12.3456"));
+            fixeds.setAmount(Fixed.parse("98.76"));
+            fixeds.setVoltage(Fixed.parse("380.5"));
+            fixeds.setCurrent(Fixed.parse("32.125"));
+            return fixeds;
+        }
+    }
+
+    /**
+     * 字段较多的实时状态，处理时通常只看枪号和状态
+     */
+    @Data
+    public static class Status {
+
+        @GByteField(length = 8, stringType = Constant.STRING_BCD)
+        private String pileCode;
+
+        @GByteField(length = 1)
+        private int gunNo;
+
+        @GByteField(length = 1)
+        private int state;
+
+        @GByteField(length = 2, offsetType = Constant.NUMBER_OFFSET_DIVIDE, offsetNum = 10)
+        private BigDecimal voltage;
+
+        @GByteField(length = 2, offsetType = Constant.NUMBER_OFFSET_DIVIDE, offsetNum = 10)
+        private BigDecimal current;
+
+        @GByteField(length = 17)
+        private String vin;
+
+        @GByteField(length = 1)
+        private int soc;
+
+        @GByteField(length = 1, offsetType = Constant.NUMBER_OFFSET_SUBTRACT, offsetNum = 50)
+        private int temperature;
+
+        @GByteField(length = 4, offsetType = Constant.NUMBER_OFFSET_DIVIDE, offsetNum = 10000)
+        private BigDecimal electricity;
+
+        @GByteField(length = 4, offsetType = Constant.NUMBER_OFFSET_DIVIDE, offsetNum = 10000)
+        private BigDecimal lossElectricity;
+
+        @GByteField(length = 4, offsetType = Constant.NUMBER_OFFSET_DIVIDE, offsetNum = 10000)
+        private BigDecimal amount;
+
+        @GByteField(length = 2)
+        private int fault;
+
+        @GByteField(length = 8)
+        private long timestamp;
+
+        static Status sample() {
+            Status status = new Status();
+            status.setPileCode("3201020304050607");
+            status.setGunNo(1);
+            status.setState(3);
+            status.setVoltage(new BigDecimal("380.5"));
+            status.setCurrent(new BigDecimal("32.1"));
+            status.setVin("LSVAU2180N2183294");
+            status.setSoc(68);
+            status.setTemperature(36);
+            status.setElectricity(new BigDecimal("12.3456"));
+            status.setLossElectricity(new BigDecimal("12.4000"));
+            status.setAmount(new BigDecimal("9.8765"));
+            status.setFault(0);
+            status.setTimestamp(1634567890123L);
+            return status;
+        }
+    }
+}
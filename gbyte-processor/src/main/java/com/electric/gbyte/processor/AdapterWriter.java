@@ -0,0 +1,237 @@
+package com.electric.gbyte.processor;
+
+import com.electric.gbyte.annotations.GByteField;
+
+import java.util.List;
+
+/**
+ * 输出生成的适配器工厂源码
+ *
+ * @author bingo
+ */
+final class AdapterWriter {
+
+    private final String packageName;
+
+    private final String factoryName;
+
+    private final String messageType;
+
+    private final List<FieldModel> fields;
+
+    private final StringBuilder out = new StringBuilder();
+
+    AdapterWriter(String packageName, String factoryName, String messageType, List<FieldModel> fields) {
+        this.packageName = packageName;
+        this.factoryName = factoryName;
+        this.messageType = messageType;
+        this.fields = fields;
+    }
+
+    String write() {
+        if (!packageName.isEmpty()) {
+            line(0, "package " + packageName + ";");
+            line(0, "");
+        }
+        line(0, "import com.electric.gbyte.GByte;");
+        line(0, "import com.electric.gbyte.GeneratedTypeAdapterFactory;");
+        line(0, "import com.electric.gbyte.TypeAdapter;");
+        line(0, "import com.electric.gbyte.annotations.GByteFieldInfo;");
+        if (fields.stream().anyMatch(field -> field.primitiveCodec() != null)) {
+            line(0, "import com.electric.gbyte.internal.bind.NumberCodecs;");
+        }
+        line(0, "import com.electric.gbyte.internal.bind.TypeAdapters;");
+        line(0, "import com.electric.gbyte.reflect.TypeToken;");
+        line(0, "import io.netty.buffer.ByteBuf;");
+        line(0, "");
+        line(0, "import java.nio.ByteOrder;");
+        line(0, "");
+        line(0, "/**");
+        line(0, " * Generated by gbyte-processor, do not edit.");
+        line(0, " */");
+        line(0, "@javax.annotation.processing.Generated(\"" + GByteProcessor.class.getName() + "\")");
+        line(0, "public final class " + factoryName + " implements GeneratedTypeAdapterFactory {");
+        line(0, "");
+        line(1, "@Override");
+        line(1, "public Class<?> getType() {");
+        line(2, "return " + messageType + ".class;");
+        line(1, "}");
+        line(0, "");
+        line(1, "@Override");
+        line(1, "@SuppressWarnings(\"unchecked\")");
+        line(1, "public <T> TypeAdapter<T> create(GByte gByte, TypeToken<T> type, Integer version) {");
+        line(2, "if (type.getRawType() != " + messageType + ".class) {");
+        line(3, "return null;");
+        line(2, "}");
+        line(2, "return (TypeAdapter<T>) new Adapter(gByte, version);");
+        line(1, "}");
+        line(0, "");
+        writeAdapter();
+        line(0, "}");
+        return out.toString();
+    }
+
+    private void writeAdapter() {
+        line(1, "private static final class Adapter extends TypeAdapter<" + messageType + "> {");
+        for (FieldModel field : fields) {
+            line(0, "");
+            line(2, "private final GByteFieldInfo " + field.name + "Info;");
+            line(0, "");
+            line(2, "private final TypeAdapter<" + field.sourceType + "> " + field.name + "Adapter;");
+            line(0, "");
+            line(2, "private final TypeAdapter<" + field.sourceType + "> " + field.name + "Writer;");
+            if (field.primitiveCodec() != null) {
+                line(0, "");
+                line(2, "private final NumberCodecs." + field.primitiveCodec() + " " + field.name + "Codec;");
+            }
+        }
+        line(0, "");
+        line(2, "private int fixedSize = Integer.MIN_VALUE;");
+        line(0, "");
+
+        line(2, "@SuppressWarnings({\"unchecked\", \"rawtypes\"})");
+        line(2, "Adapter(GByte gByte, int version) {");
+        for (FieldModel field : fields) {
+            GByteField f = field.byteField;
+            line(3, "if (version >= " + f.minVersion() + " && version <= " + f.maxVersion() + ") {");
+            writeFieldInfo(field.name + "Info", f);
+            line(4, "TypeAdapter<?> " + field.name + "Specialized = TypeAdapters.specialize((TypeAdapter) gByte.getAdapter(TypeToken.get(" + field.typeExpression + "), version), " + field.name + "Info);");
+            line(4, field.name + "Adapter = (TypeAdapter) " + field.name + "Specialized;");
+            if (field.primitiveCodec() != null) {
+                String codecType = "NumberCodecs." + field.primitiveCodec();
+                line(4, field.name + "Codec = " + field.name + "Specialized instanceof " + codecType + " ? (" + codecType + ") " + field.name + "Specialized : null;");
+            }
+            if (field.runtimeTypeWrapper) {
+                line(4, field.name + "Writer = TypeAdapters.runtimeTypeWrapper(gByte, " + field.name + "Adapter, " + field.typeExpression + ", version);");
+            } else {
+                line(4, field.name + "Writer = " + field.name + "Adapter;");
+            }
+            line(3, "} else {");
+            line(4, field.name + "Info = null;");
+            line(4, field.name + "Adapter = null;");
+            line(4, field.name + "Writer = null;");
+            if (field.primitiveCodec() != null) {
+                line(4, field.name + "Codec = null;");
+            }
+            line(3, "}");
+        }
+        line(2, "}");
+        line(0, "");
+
+        line(2, "@Override");
+        line(2, "public " + messageType + " read(ByteBuf in, GByteFieldInfo gByteFieldInfo) {");
+        line(3, "return read(in, null, gByteFieldInfo);");
+        line(2, "}");
+        line(0, "");
+
+        line(2, "@Override");
+        line(2, "public " + messageType + " read(ByteBuf in, " + messageType + " reuse, GByteFieldInfo gByteFieldInfo) {");
+        line(3, messageType + " instance;");
+        line(3, "if (reuse != null) {");
+        line(4, "instance = reuse;");
+        // 与反射实现一致，复用前重置所有字段，包括其它版本的字段
+        for (FieldModel field : fields) {
+            line(4, "instance." + field.name + " = " + field.defaultValue + ";");
+        }
+        line(3, "} else {");
+        line(4, "instance = new " + messageType + "();");
+        line(3, "}");
+        for (FieldModel field : fields) {
+            String codec = field.primitiveCodec();
+            if (codec != null) {
+                // 与反射实现的IntBoundField、LongBoundField一致，直接读取基本类型，不经过装箱
+                line(3, "if (" + field.name + "Codec != null) {");
+                line(4, "if (in.isReadable(" + field.name + "Codec.getLength())) {");
+                line(5, "instance." + field.name + " = " + field.name + "Codec." + (codec.equals("IntCodec") ? "readInt" : "readLong") + "(in);");
+                line(4, "}");
+                line(3, "} else if (" + field.name + "Adapter != null) {");
+            } else {
+                line(3, "if (" + field.name + "Adapter != null) {");
+            }
+            if (field.primitive) {
+                line(4, field.sourceType + " fieldValue = " + field.name + "Adapter.read(in, " + field.name + "Info);");
+                line(4, "if (fieldValue != null) {");
+                line(5, "instance." + field.name + " = fieldValue;");
+                line(4, "}");
+            } else {
+                line(4, "instance." + field.name + " = " + field.name + "Adapter.read(in, " + field.name + "Info);");
+            }
+            line(3, "}");
+        }
+        line(3, "return instance;");
+        line(2, "}");
+        line(0, "");
+
+        line(2, "@Override");
+        line(2, "public void write(ByteBuf out, " + messageType + " value, GByteFieldInfo gByteFieldInfo) {");
+        for (FieldModel field : fields) {
+            String codec = field.primitiveCodec();
+            if (codec != null) {
+                line(3, "if (" + field.name + "Codec != null) {");
+                line(4, field.name + "Codec." + (codec.equals("IntCodec") ? "writeInt" : "writeLong") + "(out, value." + field.name + ");");
+                line(3, "} else if (" + field.name + "Writer != null) {");
+            } else {
+                line(3, "if (" + field.name + "Writer != null) {");
+            }
+            line(4, field.name + "Writer.write(out, value." + field.name + ", " + field.name + "Info);");
+            line(3, "}");
+        }
+        line(2, "}");
+        line(0, "");
+
+        // 首次使用时计算，构造时字段可能还引用着递归创建中的适配器
+        line(2, "@Override");
+        line(2, "public int fixedSize(GByteFieldInfo gByteFieldInfo) {");
+        line(3, "int size = fixedSize;");
+        line(3, "if (size == Integer.MIN_VALUE) {");
+        line(4, "size = 0;");
+        for (FieldModel field : fields) {
+            line(4, "if (" + field.name + "Writer != null) {");
+            line(5, "size = addSize(size, " + field.name + "Writer.fixedSize(" + field.name + "Info));");
+            line(4, "}");
+        }
+        line(4, "fixedSize = size;");
+        line(3, "}");
+        line(3, "return size;");
+        line(2, "}");
+        line(0, "");
+
+        line(2, "@Override");
+        line(2, "public int size(" + messageType + " value, GByteFieldInfo gByteFieldInfo) {");
+        line(3, "int size = fixedSize(gByteFieldInfo);");
+        line(3, "if (size != UNKNOWN_SIZE || value == null) {");
+        line(4, "return size;");
+        line(3, "}");
+        line(3, "size = 0;");
+        for (FieldModel field : fields) {
+            line(3, "if (" + field.name + "Writer != null) {");
+            line(4, "size = addSize(size, " + field.name + "Writer.size(value." + field.name + ", " + field.name + "Info));");
+            line(3, "}");
+        }
+        line(3, "return size;");
+        line(2, "}");
+        line(1, "}");
+    }
+
+    private void writeFieldInfo(String target, GByteField f) {
+        line(4, target + " = GByteFieldInfo.builder()");
+        line(6, ".byteOrder(" + (f.littleEndian() ? "ByteOrder.LITTLE_ENDIAN" : "ByteOrder.BIG_ENDIAN") + ")");
+        line(6, ".minVersion(" + f.minVersion() + ")");
+        line(6, ".maxVersion(" + f.maxVersion() + ")");
+        line(6, ".currentVersion(version)");
+        line(6, ".length(" + f.length() + ")");
+        line(6, ".stringType((byte) " + f.stringType() + ")");
+        line(6, ".stringFill(" + f.stringFill() + ")");
+        line(6, ".offsetType((byte) " + f.offsetType() + ")");
+        line(6, ".offsetNum(" + f.offsetNum() + ")");
+        line(6, ".elementLength(" + f.elementLength() + ")");
+        line(6, ".build();");
+    }
+
+    private void line(int indent, String text) {
+        if (!text.isEmpty()) {
+            out.append("    ".repeat(indent)).append(text);
+        }
+        out.append('\n');
+    }
+}
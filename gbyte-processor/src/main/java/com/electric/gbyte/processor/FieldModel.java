@@ -0,0 +1,59 @@
+package com.electric.gbyte.processor;
+
+import com.electric.gbyte.annotations.GByteField;
+
+/**
+ * 生成适配器所需的字段信息
+ *
+ * @author bingo
+ */
+final class FieldModel {
+
+    final String name;
+
+    /**
+     * 字段的Java源码类型，基本类型为包装类
+     */
+    final String sourceType;
+
+    /**
+     * 字段的java.lang.reflect.Type表达式
+     */
+    final String typeExpression;
+
+    final boolean primitive;
+
+    /**
+     * 字段类型默认值的源码，复用对象时用于重置
+     */
+    final String defaultValue;
+
+    final boolean runtimeTypeWrapper;
+
+    final GByteField byteField;
+
+    FieldModel(String name, String sourceType, String typeExpression, boolean primitive, String defaultValue, boolean runtimeTypeWrapper,
+               GByteField byteField) {
+        this.name = name;
+        this.sourceType = sourceType;
+        this.typeExpression = typeExpression;
+        this.primitive = primitive;
+        this.defaultValue = defaultValue;
+        this.runtimeTypeWrapper = runtimeTypeWrapper;
+        this.byteField = byteField;
+    }
+
+    /**
+     * @return int、long字段对应的专用数字编解码类名，其它类型返回null
+     */
+    String primitiveCodec() {
+        if (!primitive) {
+            return null;
+        }
+        return switch (sourceType) {
+            case "java.lang.Integer" -> "IntCodec";
+            case "java.lang.Long" -> "LongCodec";
+            default -> null;
+        };
+    }
+}
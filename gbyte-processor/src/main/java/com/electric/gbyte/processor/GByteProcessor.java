@@ -0,0 +1,298 @@
+package com.electric.gbyte.processor;
+
+import com.electric.gbyte.annotations.GByteField;
+
+import javax.annotation.processing.*;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.*;
+import javax.lang.model.type.*;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * 编译期为带{@link GByteField}字段的类生成{@link com.electric.gbyte.GeneratedTypeAdapterFactory}
+ * <p>
+ * 生成的适配器直接调用构造器和读写字段，不再需要反射、类型解析和UnsafeAllocator；
+ * 与反射实现一致只访问字段本身，不调用getter/setter，因此字段不能是private。
+ * 无法生成的类（泛型类、private字段、缺少无参构造器、使用了{@link com.electric.gbyte.annotations.GByteFieldAdapter}或位字段等）输出NOTE后仍走反射
+ *
+ * @author bingo
+ */
+@SupportedAnnotationTypes("com.electric.gbyte.annotations.GByteField")
+public final class GByteProcessor extends AbstractProcessor {
+
+    static final String SERVICE_FILE = "META-INF/services/com.electric.gbyte.GeneratedTypeAdapterFactory";
+
+    private static final String GENERATED_SUFFIX = "$GByteAdapterFactory";
+
+    private static final Set<String> LOMBOK_ARGS_CONSTRUCTOR = Set.of("lombok.AllArgsConstructor", "lombok.RequiredArgsConstructor", "lombok.Builder", "lombok.Value");
+
+    private final Set<String> generated = new TreeSet<>();
+
+    private Types types;
+
+    private Elements elements;
+
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        this.types = processingEnv.getTypeUtils();
+        this.elements = processingEnv.getElementUtils();
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        Set<TypeElement> messageTypes = new LinkedHashSet<>();
+        for (Element element : roundEnv.getElementsAnnotatedWith(GByteField.class)) {
+            if (element.getKind() == ElementKind.FIELD) {
+                messageTypes.add((TypeElement) element.getEnclosingElement());
+            }
+        }
+
+        for (TypeElement messageType : messageTypes) {
+            try {
+                List<FieldModel> fields = analyze(messageType);
+                if (fields != null) {
+                    String factoryName = generate(messageType, fields);
+                    generated.add(factoryName);
+                }
+            } catch (IOException e) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "GByte generate adapter failed: " + e.getMessage(), messageType);
+            }
+        }
+
+        if (roundEnv.processingOver() && !generated.isEmpty()) {
+            writeServiceFile();
+        }
+        return false;
+    }
+
+    /**
+     * @return 无法生成时返回null
+     */
+    private List<FieldModel> analyze(TypeElement messageType) {
+        if (messageType.getKind() != ElementKind.CLASS || messageType.getModifiers().contains(Modifier.ABSTRACT)) {
+            return skip(messageType, "not a concrete class");
+        }
+        if (!messageType.getTypeParameters().isEmpty()) {
+            return skip(messageType, "generic class");
+        }
+        for (Element e = messageType; e instanceof TypeElement; e = e.getEnclosingElement()) {
+            if (e.getModifiers().contains(Modifier.PRIVATE)) {
+                return skip(messageType, "private class");
+            }
+            if (e.getEnclosingElement() instanceof TypeElement && !e.getModifiers().contains(Modifier.STATIC)) {
+                return skip(messageType, "inner class");
+            }
+        }
+        if (hasAnnotation(messageType, "com.electric.gbyte.annotations.GByteFieldAdapter")) {
+            return skip(messageType, "@GByteFieldAdapter on class");
+        }
+        if (!hasNoArgsConstructor(messageType)) {
+            return skip(messageType, "no accessible no-args constructor");
+        }
+
+        List<FieldModel> fields = new ArrayList<>();
+        for (VariableElement field : ElementFilter.fieldsIn(messageType.getEnclosedElements())) {
+            GByteField byteField = field.getAnnotation(GByteField.class);
+            if (byteField == null) {
+                continue;
+            }
+            if (field.getModifiers().contains(Modifier.STATIC) || field.getModifiers().contains(Modifier.FINAL)) {
+                return skip(messageType, "static or final field " + field.getSimpleName());
+            }
+            if (field.getModifiers().contains(Modifier.PRIVATE)) {
+                return skip(messageType, "private field " + field.getSimpleName());
+            }
+            if (hasAnnotation(field, "com.electric.gbyte.annotations.GByteFieldAdapter")) {
+                return skip(messageType, "@GByteFieldAdapter on field " + field.getSimpleName());
+            }
+            if (byteField.bitLength() > 0) {
+                return skip(messageType, "bit field " + field.getSimpleName());
+            }
+
+            TypeMirror type = field.asType();
+            String typeExpression = typeExpression(type);
+            if (typeExpression == null) {
+                return skip(messageType, "unsupported type of field " + field.getSimpleName());
+            }
+
+            fields.add(new FieldModel(field.getSimpleName().toString(), sourceType(type), typeExpression, type.getKind().isPrimitive(),
+                    defaultValue(type), needsRuntimeTypeWrapper(type), byteField));
+        }
+        return fields;
+    }
+
+    private List<FieldModel> skip(TypeElement messageType, String reason) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.NOTE, "GByte adapter not generated (" + reason + "), fallback to reflection", messageType);
+        return null;
+    }
+
+    private String generate(TypeElement messageType, List<FieldModel> fields) throws IOException {
+        String packageName = elements.getPackageOf(messageType).getQualifiedName().toString();
+        String factoryName = flatName(messageType) + GENERATED_SUFFIX;
+        String qualifiedFactoryName = packageName.isEmpty() ? factoryName : packageName + "." + factoryName;
+
+        String source = new AdapterWriter(packageName, factoryName, messageType.getQualifiedName().toString(), fields).write();
+        try (Writer writer = processingEnv.getFiler().createSourceFile(qualifiedFactoryName, messageType).openWriter()) {
+            writer.write(source);
+        }
+        return qualifiedFactoryName;
+    }
+
+    /**
+     * 增量编译时本轮只处理了改动的类，需要保留已有文件中仍然存在的工厂类
+     */
+    private void writeServiceFile() {
+        readServiceFile();
+        try {
+            FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE);
+            try (Writer writer = file.openWriter()) {
+                for (String factoryName : generated) {
+                    writer.write(factoryName);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "GByte write " + SERVICE_FILE + " failed: " + e.getMessage());
+        }
+    }
+
+    private void readServiceFile() {
+        try {
+            FileObject file = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE);
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(file.openInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    String factoryName = line.trim();
+                    if (!factoryName.isEmpty() && elements.getTypeElement(factoryName) != null) {
+                        generated.add(factoryName);
+                    }
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            // 首次编译时还没有该文件
+        }
+    }
+
+    private static String flatName(TypeElement type) {
+        StringBuilder name = new StringBuilder(type.getSimpleName());
+        for (Element e = type.getEnclosingElement(); e instanceof TypeElement; e = e.getEnclosingElement()) {
+            name.insert(0, '$').insert(0, e.getSimpleName());
+        }
+        return name.toString();
+    }
+
+    private boolean hasNoArgsConstructor(TypeElement type) {
+        if (hasAnnotation(type, "lombok.NoArgsConstructor")) {
+            return true;
+        }
+        for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if (!constructor.getParameters().isEmpty() || constructor.getModifiers().contains(Modifier.PRIVATE)) {
+                continue;
+            }
+            // javac生成的默认构造器会因lombok生成带参构造器而消失
+            return elements.getOrigin(constructor) != Elements.Origin.MANDATED || !hasAnyAnnotation(type, LOMBOK_ARGS_CONSTRUCTOR);
+        }
+        return false;
+    }
+
+    /**
+     * @return 字段类型对应的java.lang.reflect.Type表达式，无法在生成代码中表示时返回null
+     */
+    private String typeExpression(TypeMirror type) {
+        switch (type.getKind()) {
+            case BOOLEAN:
+            case BYTE:
+            case SHORT:
+            case INT:
+            case LONG:
+            case CHAR:
+            case FLOAT:
+            case DOUBLE:
+                return type + ".class";
+            case ARRAY: {
+                TypeMirror component = ((ArrayType) type).getComponentType();
+                if (component.getKind().isPrimitive() || component.getKind() == TypeKind.DECLARED && ((DeclaredType) component).getTypeArguments().isEmpty()) {
+                    return types.erasure(type) + ".class";
+                }
+                return null;
+            }
+            case DECLARED: {
+                DeclaredType declaredType = (DeclaredType) type;
+                String raw = types.erasure(type) + ".class";
+                if (declaredType.getTypeArguments().isEmpty()) {
+                    return raw;
+                }
+                StringBuilder expression = new StringBuilder("TypeToken.getParameterized(").append(raw);
+                for (TypeMirror argument : declaredType.getTypeArguments()) {
+                    String argumentExpression = typeExpression(argument);
+                    if (argumentExpression == null || argument.getKind().isPrimitive()) {
+                        return null;
+                    }
+                    expression.append(", ").append(argumentExpression);
+                }
+                return expression.append(").getType()").toString();
+            }
+            default:
+                return null;
+        }
+    }
+
+    private String sourceType(TypeMirror type) {
+        if (type.getKind().isPrimitive()) {
+            return types.boxedClass((PrimitiveType) type).getQualifiedName().toString();
+        }
+        return type.toString();
+    }
+
+    private static String defaultValue(TypeMirror type) {
+        if (type.getKind() == TypeKind.BOOLEAN) {
+            return "false";
+        }
+        return type.getKind().isPrimitive() ? "(" + type + ") 0" : "null";
+    }
+
+    /**
+     * 与反射实现一致，非final类型写入时按运行时类型选择适配器
+     */
+    private boolean needsRuntimeTypeWrapper(TypeMirror type) {
+        if (type.getKind() != TypeKind.DECLARED) {
+            return false;
+        }
+        return !((DeclaredType) type).asElement().getModifiers().contains(Modifier.FINAL);
+    }
+
+    private static boolean hasAnnotation(Element element, String annotationName) {
+        for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+            if (((TypeElement) annotation.getAnnotationType().asElement()).getQualifiedName().contentEquals(annotationName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasAnyAnnotation(Element element, Set<String> annotationNames) {
+        for (String annotationName : annotationNames) {
+            if (hasAnnotation(element, annotationName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
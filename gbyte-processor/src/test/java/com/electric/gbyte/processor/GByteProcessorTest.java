@@ -0,0 +1,174 @@
+package com.electric.gbyte.processor;
+
+import com.electric.gbyte.Fixed;
+import com.electric.gbyte.GByte;
+import com.electric.gbyte.GByteBuilder;
+import com.electric.gbyte.internal.bind.MessageLayout;
+import com.electric.gbyte.reflect.TypeToken;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.netty.util.ReferenceCounted;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 用处理器编译fixture下的协议类，比较生成的适配器与反射的编解码结果
+ *
+ * @author bingo
+ */
+class GByteProcessorTest {
+
+    private static ClassLoader classLoader;
+
+    private static GByte generated;
+
+    private static GByte reflective;
+
+    @BeforeAll
+    static void compile() throws Exception {
+        Path source = Paths.get(GByteProcessorTest.class.getResource("/fixture/Telemetry.java").toURI());
+        Path out = Files.createTempDirectory("gbyte-processor");
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8)) {
+            fileManager.setLocation(StandardLocation.CLASS_OUTPUT, List.of(out.toFile()));
+            fileManager.setLocation(StandardLocation.CLASS_PATH, Stream.of(GByte.class, ByteBuf.class, ReferenceCounted.class)
+                    .map(type -> new File(type.getProtectionDomain().getCodeSource().getLocation().getPath()))
+                    .collect(Collectors.toList()));
+            JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics, null, null,
+                    fileManager.getJavaFileObjects(source.toFile()));
+            task.setProcessors(List.of(new GByteProcessor()));
+            assertTrue(task.call(), () -> diagnostics.getDiagnostics().toString());
+        }
+
+        assertEquals(List.of("fixture.Telemetry$GByteAdapterFactory", "fixture.Telemetry$Gun$GByteAdapterFactory"),
+                Files.readAllLines(out.resolve(GByteProcessor.SERVICE_FILE)));
+
+        classLoader = new URLClassLoader(new URL[]{out.toUri().toURL()}, GByteProcessorTest.class.getClassLoader());
+        ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        Thread.currentThread().setContextClassLoader(classLoader);
+        try {
+            generated = new GByteBuilder().create();
+        } finally {
+            Thread.currentThread().setContextClassLoader(contextClassLoader);
+        }
+        reflective = new GByteBuilder().disableGeneratedAdapters().create();
+    }
+
+    @Test
+    void testGeneratedAdapter() throws Exception {
+        Class<?> type = classLoader.loadClass("fixture.Telemetry");
+        assertEquals("fixture.Telemetry$GByteAdapterFactory$Adapter", generated.getAdapter(TypeToken.get(type), 1).getClass().getName());
+        assertNotEquals("fixture.Telemetry$GByteAdapterFactory$Adapter", reflective.getAdapter(TypeToken.get(type), 1).getClass().getName());
+        // private字段的类不生成
+        Class<?> meterType = classLoader.loadClass("fixture.Telemetry$Meter");
+        assertEquals(reflective.getAdapter(TypeToken.get(meterType), 1).getClass(), generated.getAdapter(TypeToken.get(meterType), 1).getClass());
+    }
+
+    @Test
+    void testSameBytes() throws Exception {
+        Object telemetry = telemetry();
+        for (int version : new int[]{1, 206, 207}) {
+            ByteBuf expected = Unpooled.buffer();
+            reflective.toByteBuf(expected, telemetry, version);
+            ByteBuf actual = Unpooled.buffer();
+            generated.toByteBuf(actual, telemetry, version);
+            assertEquals(ByteBufUtil.hexDump(expected), ByteBufUtil.hexDump(actual), "version " + version);
+            assertEquals(reflective.encodedSize(telemetry, version), generated.encodedSize(telemetry, version));
+
+            // 两种方式解码后再编码，结果与原数据一致
+            Object fromGenerated = generated.fromByteBuf(expected.duplicate(), telemetry.getClass(), version);
+            Object fromReflective = reflective.fromByteBuf(expected.duplicate(), telemetry.getClass(), version);
+            ByteBuf generatedAgain = Unpooled.buffer();
+            generated.toByteBuf(generatedAgain, fromGenerated, version);
+            ByteBuf reflectiveAgain = Unpooled.buffer();
+            reflective.toByteBuf(reflectiveAgain, fromReflective, version);
+            assertEquals(expected, generatedAgain, "version " + version);
+            assertEquals(expected, reflectiveAgain, "version " + version);
+        }
+    }
+
+    @Test
+    void testReuseTruncated() throws Exception {
+        Object telemetry = telemetry();
+        ByteBuf data = Unpooled.buffer();
+        reflective.toByteBuf(data, telemetry, 207);
+        // soc及之后的字段数据不足
+        MessageLayout<?> layout = reflective.getLayout(telemetry.getClass(), 207);
+        // 生成的适配器与反射读写相同的字段，可以按字段布局读取
+        assertEquals(layout.getFixedSize(), generated.getLayout(telemetry.getClass(), 207).getFixedSize());
+        ByteBuf truncated = data.slice(0, layout.getOffset(layout.indexOf("soc")));
+
+        for (GByte gByte : new GByte[]{generated, reflective}) {
+            Object reuse = gByte.fromByteBuf(data.duplicate(), telemetry.getClass(), 207);
+            Object fresh = gByte.fromByteBuf(truncated.duplicate(), telemetry.getClass(), 207);
+            assertSame(reuse, gByte.fromByteBufInto(truncated.duplicate(), reuse, 207));
+            for (Field field : telemetry.getClass().getDeclaredFields()) {
+                field.setAccessible(true);
+                assertTrue(Objects.deepEquals(field.get(fresh), field.get(reuse)), field.getName());
+            }
+        }
+    }
+
+    private static Object telemetry() throws Exception {
+        Class<?> type = classLoader.loadClass("fixture.Telemetry");
+        Class<?> gunType = classLoader.loadClass("fixture.Telemetry$Gun");
+        Object gun1 = gunType.getDeclaredConstructor().newInstance();
+        set(gun1, "no", 1);
+        set(gun1, "state", (short) 0x0102);
+        Object gun2 = gunType.getDeclaredConstructor().newInstance();
+        set(gun2, "no", 2);
+
+        Object meter = classLoader.loadClass("fixture.Telemetry$Meter").getDeclaredConstructor().newInstance();
+        set(meter, "reading", 100L);
+
+        Object telemetry = type.getDeclaredConstructor().newInstance();
+        set(telemetry, "pileCode", "P0001");
+        set(telemetry, "name", "充电桩");
+        set(telemetry, "cardNo", "12345678");
+        set(telemetry, "voltage", 2200);
+        set(telemetry, "energy", 123456789L);
+        set(telemetry, "temperature", 25);
+        set(telemetry, "current", 320);
+        set(telemetry, "duration", 3600L);
+        set(telemetry, "amount", new BigDecimal("12.34"));
+        set(telemetry, "power", Fixed.parse("7.2"));
+        set(telemetry, "charging", true);
+        set(telemetry, "soc", 80);
+        set(telemetry, "legacy", (byte) 9);
+        set(telemetry, "reserved", new byte[]{1, 2, 3});
+        set(telemetry, "guns", List.of(gun1, gun2));
+        set(telemetry, "meter", meter);
+        return telemetry;
+    }
+
+    private static void set(Object target, String name, Object value) throws ReflectiveOperationException {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+}
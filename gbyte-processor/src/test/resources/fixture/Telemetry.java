@@ -0,0 +1,106 @@
+package fixture;
+
+import com.electric.gbyte.Constant;
+import com.electric.gbyte.Fixed;
+import com.electric.gbyte.annotations.GByteField;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public class Telemetry {
+
+    @GByteField(length = 8)
+    String pileCode;
+
+    @GByteField(length = 12, stringType = Constant.STRING_UTF8, stringFill = 0xff)
+    String name;
+
+    @GByteField(length = 6, stringType = Constant.STRING_BCD, stringFill = 0xff)
+    String cardNo;
+
+    @GByteField(length = 2)
+    int voltage;
+
+    @GByteField(length = 4, littleEndian = false)
+    long energy;
+
+    @GByteField(length = 1, offsetType = Constant.NUMBER_OFFSET_ADD, offsetNum = 50)
+    int temperature;
+
+    @GByteField(length = 2, littleEndian = false, offsetType = Constant.NUMBER_OFFSET_SUBTRACT, offsetNum = 1000)
+    Integer current;
+
+    @GByteField(length = 4, offsetType = Constant.NUMBER_OFFSET_MULTIPLY, offsetNum = 10)
+    long duration;
+
+    @GByteField(length = 4, offsetType = Constant.NUMBER_OFFSET_DIVIDE, offsetNum = 100)
+    BigDecimal amount;
+
+    @GByteField(length = 2, littleEndian = false, offsetType = Constant.NUMBER_OFFSET_DIVIDE, offsetNum = 10)
+    Fixed power;
+
+    @GByteField(length = 1)
+    boolean charging;
+
+    @GByteField(minVersion = 207, length = 2)
+    int soc;
+
+    @GByteField(maxVersion = 206, length = 1)
+    byte legacy;
+
+    @GByteField(length = 3)
+    byte[] reserved;
+
+    @GByteField(length = 2)
+    List<Gun> guns;
+
+    @GByteField
+    Meter meter;
+
+    /**
+     * getter/setter换算了数值，生成的适配器与反射一样直接读写字段
+     */
+    public int getVoltage() {
+        return voltage / 10;
+    }
+
+    public void setVoltage(int voltage) {
+        this.voltage = voltage * 10;
+    }
+
+    public static class Gun {
+
+        @GByteField(length = 1)
+        int no;
+
+        @GByteField(length = 2, littleEndian = false)
+        Short state;
+    }
+
+    /**
+     * private字段不生成适配器，仍走反射
+     */
+    public static class Meter {
+
+        @GByteField(length = 4, littleEndian = false)
+        private long reading;
+
+        public long getReading() {
+            return reading + 1;
+        }
+
+        public void setReading(long reading) {
+            this.reading = reading - 1;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Meter && ((Meter) o).reading == reading;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(reading);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.electric.gbyte;
+
+import java.math.BigDecimal;
+
+/**
+ * 定点小数，值为unscaled / 10^scale，不可变
+ * <p>
+ * 按倍率缩放的电量、功率、金额等字段可以声明为此类型代替BigDecimal，解码时直接以原始值为unscaled，
+ * 加减和按整数倍乘在long上完成，只在需要时转换为BigDecimal。溢出时抛出{@link ArithmeticException}
+ *
+ * @author bingo
+ */
+public final class Fixed extends Number implements Comparable<Fixed> {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final int MAX_SCALE = 18;
+
+    public static final Fixed ZERO = new Fixed(0, 0);
+
+    private static final long[] POWERS_OF_TEN = new long[MAX_SCALE + 1];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private final long unscaled;
+
+    private final int scale;
+
+    private Fixed(long unscaled, int scale) {
+        this.unscaled = unscaled;
+        this.scale = scale;
+    }
+
+    /**
+     * @param scale 0~{@link #MAX_SCALE}
+     */
+    public static Fixed of(long unscaled, int scale) {
+        if (scale < 0 || scale > MAX_SCALE) {
+            throw new IllegalArgumentException("scale: " + scale);
+        }
+        return unscaled == 0 && scale == 0 ? ZERO : new Fixed(unscaled, scale);
+    }
+
+    public static Fixed valueOf(long value) {
+        return of(value, 0);
+    }
+
+    /**
+     * @throws ArithmeticException 超出long或scale超出范围时
+     */
+    public static Fixed valueOf(BigDecimal value) {
+        if (value.scale() < 0) {
+            value = value.setScale(0);
+        }
+        if (value.scale() > MAX_SCALE) {
+            throw new ArithmeticException("scale超出范围: " + value);
+        }
+        return of(value.unscaledValue().longValueExact(), value.scale());
+    }
+
+    public static Fixed parse(String value) {
+        return valueOf(new BigDecimal(value));
+    }
+
+    /**
+     * 10^scale
+     */
+    public static long powerOfTen(int scale) {
+        return POWERS_OF_TEN[scale];
+    }
+
+    public long getUnscaled() {
+        return unscaled;
+    }
+
+    public int getScale() {
+        return scale;
+    }
+
+    /**
+     * 按指定小数位数表示的unscaled值，位数减少时四舍五入
+     */
+    public long unscaled(int scale) {
+        if (scale == this.scale) {
+            return unscaled;
+        }
+        if (scale > this.scale) {
+            return Math.multiplyExact(unscaled, POWERS_OF_TEN[scale - this.scale]);
+        }
+
+        long divisor = POWERS_OF_TEN[this.scale - scale];
+        long quotient = unscaled / divisor;
+        long remainder = unscaled % divisor;
+        if (Math.abs(remainder) * 2 >= divisor) {
+            quotient += Long.signum(unscaled);
+        }
+        return quotient;
+    }
+
+    /**
+     * 位数减少时四舍五入
+     */
+    public Fixed setScale(int scale) {
+        return scale == this.scale ? this : of(unscaled(scale), scale);
+    }
+
+    public Fixed add(Fixed other) {
+        int scale = Math.max(this.scale, other.scale);
+        return of(Math.addExact(unscaled(scale), other.unscaled(scale)), scale);
+    }
+
+    public Fixed subtract(Fixed other) {
+        int scale = Math.max(this.scale, other.scale);
+        return of(Math.subtractExact(unscaled(scale), other.unscaled(scale)), scale);
+    }
+
+    public Fixed multiply(long multiplicand) {
+        return of(Math.multiplyExact(unscaled, multiplicand), scale);
+    }
+
+    public Fixed negate() {
+        return of(Math.negateExact(unscaled), scale);
+    }
+
+    public int signum() {
+        return Long.signum(unscaled);
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(unscaled, scale);
+    }
+
+    @Override
+    public int intValue() {
+        return (int) longValue();
+    }
+
+    /**
+     * 舍去小数部分
+     */
+    @Override
+    public long longValue() {
+        return unscaled / POWERS_OF_TEN[scale];
+    }
+
+    @Override
+    public float floatValue() {
+        return (float) doubleValue();
+    }
+
+    @Override
+    public double doubleValue() {
+        return (double) unscaled / POWERS_OF_TEN[scale];
+    }
+
+    /**
+     * 按数值比较，1.0与1.00相等
+     */
+    @Override
+    public int compareTo(Fixed other) {
+        if (scale == other.scale) {
+            return Long.compare(unscaled, other.unscaled);
+        }
+        return toBigDecimal().compareTo(other.toBigDecimal());
+    }
+
+    /**
+     * 与BigDecimal一致，scale不同时不相等
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Fixed)) {
+            return false;
+        }
+        Fixed other = (Fixed) o;
+        return unscaled == other.unscaled && scale == other.scale;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(unscaled) + scale;
+    }
+
+    @Override
+    public String toString() {
+        if (scale == 0) {
+            return Long.toString(unscaled);
+        }
+
+        StringBuilder sb = new StringBuilder(21);
+        long integer = Math.abs(unscaled / POWERS_OF_TEN[scale]);
+        long fraction = Math.abs(unscaled % POWERS_OF_TEN[scale]);
+        if (unscaled < 0) {
+            sb.append('-');
+        }
+        sb.append(integer).append('.');
+        String digits = Long.toString(fraction);
+        for (int i = digits.length(); i < scale; i++) {
+            sb.append('0');
+        }
+        return sb.append(digits).toString();
+    }
+}
@@ -1,13 +1,17 @@
 package com.electric.gbyte;
 
 import com.electric.gbyte.annotations.GByteFieldInfo;
+import com.electric.gbyte.decoder.RunningChecksum;
 import com.electric.gbyte.internal.ConstructorConstructor;
+import com.electric.gbyte.internal.VersionCache;
 import com.electric.gbyte.internal.bind.*;
 import com.electric.gbyte.reflect.TypeToken;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
 
 import java.lang.reflect.Type;
 import java.math.BigDecimal;
+import java.nio.ByteBuffer;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -24,7 +28,33 @@ public class GByte {
 
     private final Map<TypeTokenCacheKey, TypeAdapter<?>> typeTokenCache = new ConcurrentHashMap<>();
 
+    /**
+     * 按Class和版本号缓存的适配器，查找时不分配对象
+     * <p>
+     * 缓存属于当前实例，不放在ClassValue中：适配器引用着GByte，ClassValue的值会被Class一直持有，丢弃的GByte无法回收
+     */
+    private final Map<Class<?>, VersionCache<TypeAdapter<?>>> classCache = new ConcurrentHashMap<>();
+
+    private final ReflectiveTypeAdapterFactory reflectiveFactory;
+
+    /**
+     * 编译期生成的适配器工厂，未加载时为null
+     */
+    private final GeneratedTypeAdapterFactories generatedFactories;
+
+    /**
+     * 按Class和版本号缓存的字段布局
+     */
+    private final Map<Class<?>, VersionCache<MessageLayout<?>>> layoutCache = new ConcurrentHashMap<>();
+
     public GByte(final Map<Type, InstanceCreator<?>> instanceCreators, List<TypeAdapterFactory> factories) {
+        this(instanceCreators, factories, false);
+    }
+
+    /**
+     * @param methodHandleAccessor 是否通过字段的MethodHandle读写代替反射
+     */
+    public GByte(final Map<Type, InstanceCreator<?>> instanceCreators, List<TypeAdapterFactory> factories, boolean methodHandleAccessor) {
         // 自定义的适配器
         List<TypeAdapterFactory> f = new ArrayList<>(factories);
 
@@ -35,8 +65,12 @@ public class GByte {
         f.add(TypeAdapters.newFactory(long.class, Long.class, TypeAdapters.LONG));
         f.add(TypeAdapters.newFactory(boolean.class, Boolean.class, TypeAdapters.BOOLEAN));
         f.add(TypeAdapters.newFactory(BigDecimal.class, TypeAdapters.BIG_DECIMAL));
+        f.add(TypeAdapters.newFactory(Fixed.class, TypeAdapters.FIXED));
+        f.add(TypeAdapters.newTypeHierarchyFactory(ByteBuf.class, TypeAdapters.BYTE_BUF));
+        f.add(TypeAdapters.newTypeHierarchyFactory(ByteBuffer.class, TypeAdapters.BYTE_BUFFER));
 
-        // 仅支持byte数组和自定义对象数组
+        // 基本类型数组不经过装箱，其余数组逐个元素处理
+        f.add(PrimitiveArrayTypeAdapters.FACTORY);
         f.add(ArrayTypeAdapter.FACTORY);
 
         ConstructorConstructor constructorConstructor = new ConstructorConstructor(instanceCreators);
@@ -46,27 +80,168 @@ public class GByte {
         // 仅支持byte集合和自定义对象集合
         f.add(new CollectionTypeAdapterFactory(constructorConstructor));
 
-        f.add(new ReflectiveTypeAdapterFactory(constructorConstructor, gByteAdapterFactory));
+        this.reflectiveFactory = new ReflectiveTypeAdapterFactory(constructorConstructor, gByteAdapterFactory, methodHandleAccessor);
+        f.add(reflectiveFactory);
 
         this.factories = Collections.unmodifiableList(f);
+
+        GeneratedTypeAdapterFactories generated = null;
+        for (TypeAdapterFactory factory : factories) {
+            if (factory instanceof GeneratedTypeAdapterFactories) {
+                generated = (GeneratedTypeAdapterFactories) factory;
+                break;
+            }
+        }
+        this.generatedFactories = generated;
     }
 
     @SuppressWarnings("unchecked")
     public void toByteBuf(ByteBuf out, Object src, Integer version) {
-        TypeAdapter<?> adapter = getAdapter(TypeToken.get(src.getClass()), version);
-        ((TypeAdapter<Object>) adapter).write(out, src, new GByteFieldInfo(version));
+        TypeAdapter<?> adapter = getAdapter(src.getClass(), version);
+        ((TypeAdapter<Object>) adapter).write(out, src, GByteFieldInfo.root(version));
+    }
+
+    /**
+     * 从alloc分配缓冲区并编码，长度可以确定时按{@link #encodedSize(Object, int)}分配，不再扩容拷贝
+     * <p>
+     * 通常传入ctx.alloc()，使用连接的池化直接内存，返回的缓冲区由使用方release
+     */
+    @SuppressWarnings("unchecked")
+    public ByteBuf encode(ByteBufAllocator alloc, Object src, int version) {
+        TypeAdapter<Object> adapter = (TypeAdapter<Object>) getAdapter(src.getClass(), version);
+        GByteFieldInfo gByteFieldInfo = GByteFieldInfo.root(version);
+        int size = adapter.size(src, gByteFieldInfo);
+        ByteBuf out = size != TypeAdapter.UNKNOWN_SIZE ? alloc.ioBuffer(size) : alloc.ioBuffer();
+        try {
+            adapter.write(out, src, gByteFieldInfo);
+            return out;
+        } catch (RuntimeException e) {
+            out.release();
+            throw e;
+        }
     }
 
     @SuppressWarnings("unchecked")
     public <T> T fromByteBuf(ByteBuf in, Type typeOfT, Integer version) {
-        TypeToken<T> typeToken = (TypeToken<T>) TypeToken.get(typeOfT);
-        TypeAdapter<T> typeAdapter = getAdapter(typeToken, version);
-        return typeAdapter.read(in, new GByteFieldInfo(version));
+        TypeAdapter<T> typeAdapter = typeOfT instanceof Class ? getAdapter((Class<T>) typeOfT, version) : getAdapter((TypeToken<T>) TypeToken.get(typeOfT), version);
+        return typeAdapter.read(in, GByteFieldInfo.root(version));
+    }
+
+    /**
+     * 解码到已有的对象中，不创建新的协议对象，与{@link MessageRecycler}配合复用高频报文
+     * <p>
+     * 复用前所有{@link com.electric.gbyte.annotations.GByteField}字段重置为0、false或null，字段未声明初始值时结果与新解码的对象相同；
+     * 不支持复用的适配器返回新对象
+     * <p>
+     * 不命名为fromByteBuf的重载：{@code fromByteBuf(in, Foo.class, 1)}按int版本号会优先匹配{@code (ByteBuf, T, int)}，
+     * 把Class对象当作复用对象，与{@link #fromByteBuf(ByteBuf, Type, Integer)}冲突
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T fromByteBufInto(ByteBuf in, T reuse, int version) {
+        TypeAdapter<T> typeAdapter = getAdapter((Class<T>) reuse.getClass(), version);
+        return typeAdapter.read(in, reuse, GByteFieldInfo.root(version));
+    }
+
+    /**
+     * 按字段声明的长度计算编码后的字节数，结果由适配器缓存
+     *
+     * @return 含不定长字段时返回{@link TypeAdapter#UNKNOWN_SIZE}
+     */
+    public int encodedSize(Class<?> type, int version) {
+        return getAdapter(type, version).fixedSize(GByteFieldInfo.root(version));
+    }
+
+    /**
+     * 编码src需要的字节数，定长类型直接返回缓存的长度，可用于分配大小刚好的缓冲区
+     *
+     * @return 含无法确定长度的字段时返回{@link TypeAdapter#UNKNOWN_SIZE}
+     */
+    @SuppressWarnings("unchecked")
+    public int encodedSize(Object src, int version) {
+        TypeAdapter<?> adapter = getAdapter(src.getClass(), version);
+        return ((TypeAdapter<Object>) adapter).size(src, GByteFieldInfo.root(version));
+    }
+
+    /**
+     * 解码后把本次读取的字节累加到checksum
+     * <p>
+     * 只是便捷封装，省去调用方记录读取的起止下标，校验仍在解码后另行遍历这段字节；
+     * 适配器未读取的保留字节需调用方自行累加
+     */
+    public <T> T fromByteBuf(ByteBuf in, Class<T> type, int version, RunningChecksum checksum) {
+        int start = in.readerIndex();
+        T value = getAdapter(type, version).read(in, GByteFieldInfo.root(version));
+        checksum.update(in, start, in.readerIndex() - start);
+        return value;
+    }
+
+    /**
+     * 延迟解码，只保留数据的retained slice，字段在首次访问时才解码
+     * <p>
+     * 定长报文按编码长度截取，不定长报文截取in中剩余的全部字节，返回的对象由使用方release
+     */
+    public <T> LazyMessage<T> lazy(ByteBuf in, Class<T> type, int version) {
+        MessageLayout<T> layout = getLayout(type, version);
+        int length = layout.getFixedSize() != TypeAdapter.UNKNOWN_SIZE ? Math.min(layout.getFixedSize(), in.readableBytes()) : in.readableBytes();
+        return new LazyMessage<>(this, layout, version, in.readRetainedSlice(length));
+    }
+
+    /**
+     * 定长协议的只读视图，可通过wrap反复指向每帧数据，读取字段时不创建协议对象
+     */
+    public <T> MessageView<T> view(Class<T> type, int version) {
+        return new MessageView<>(getLayout(type, version));
+    }
+
+    /**
+     * 协议类按字段声明顺序的布局，字段读取方式与反射解码一致
+     *
+     * @throws IllegalArgumentException 协议类使用了自定义的适配器，按布局读取的结果可能与{@link #fromByteBuf}不一致
+     */
+    @SuppressWarnings("unchecked")
+    public <T> MessageLayout<T> getLayout(Class<T> type, int version) {
+        VersionCache<MessageLayout<?>> layouts = layoutCache.get(type);
+        if (layouts == null) {
+            layouts = layoutCache.computeIfAbsent(type, t -> new VersionCache<>());
+        }
+
+        MessageLayout<?> cached = layouts.get(version);
+        if (cached == null) {
+            TypeAdapter<T> adapter = getAdapter(type, version);
+            if (!(adapter instanceof ReflectiveTypeAdapterFactory.Adapter) && (generatedFactories == null || !generatedFactories.isGenerated(type, adapter))) {
+                throw new IllegalArgumentException(type.getName() + "使用了自定义的适配器，不能按字段布局读取");
+            }
+            cached = reflectiveFactory.createLayout(this, type, version);
+            layouts.put(version, cached);
+        }
+        return (MessageLayout<T>) cached;
+    }
+
+    /**
+     * 直接按Class和版本号查找，命中时不创建TypeToken和缓存key
+     */
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> getAdapter(Class<T> type, int version) {
+        VersionCache<TypeAdapter<?>> adapters = classCache.get(type);
+        if (adapters == null) {
+            adapters = classCache.computeIfAbsent(type, t -> new VersionCache<>());
+        }
+
+        TypeAdapter<?> cached = adapters.get(version);
+        if (cached == null) {
+            cached = getAdapter(TypeToken.get(type), version);
+            // 递归创建中的占位适配器不缓存
+            if (!(cached instanceof FutureTypeAdapter)) {
+                adapters.put(version, cached);
+            }
+        }
+        return (TypeAdapter<T>) cached;
     }
 
     @SuppressWarnings("unchecked")
     public <T> TypeAdapter<T> getAdapter(TypeToken<T> type, Integer version) {
-        TypeAdapter<?> cached = typeTokenCache.get(new TypeTokenCacheKey(type, version));
+        TypeTokenCacheKey key = new TypeTokenCacheKey(type, version);
+        TypeAdapter<?> cached = typeTokenCache.get(key);
         if (cached != null) {
             return (TypeAdapter<T>) cached;
         }
@@ -79,26 +254,26 @@ public class GByte {
             requiresThreadLocalCleanup = true;
         }
 
-        GByte.FutureTypeAdapter<T> ongoingCall = (GByte.FutureTypeAdapter<T>) threadCalls.get(new TypeTokenCacheKey(type, version));
+        GByte.FutureTypeAdapter<T> ongoingCall = (GByte.FutureTypeAdapter<T>) threadCalls.get(key);
         if (ongoingCall != null) {
             return ongoingCall;
         }
 
         try {
             GByte.FutureTypeAdapter<T> call = new GByte.FutureTypeAdapter<>();
-            threadCalls.put(new TypeTokenCacheKey(type, version), call);
+            threadCalls.put(key, call);
 
             for (TypeAdapterFactory factory : factories) {
                 TypeAdapter<T> candidate = factory.create(this, type, version);
                 if (candidate != null) {
                     call.setDelegate(candidate);
-                    typeTokenCache.put(new TypeTokenCacheKey(type, version), candidate);
+                    typeTokenCache.put(key, candidate);
                     return candidate;
                 }
             }
             throw new IllegalArgumentException("cannot handle " + type);
         } finally {
-            threadCalls.remove(new TypeTokenCacheKey(type, version));
+            threadCalls.remove(key);
 
             if (requiresThreadLocalCleanup) {
                 calls.remove();
@@ -125,6 +300,14 @@ public class GByte {
             return delegate.read(in, gByteFieldInfo);
         }
 
+        @Override
+        public T read(final ByteBuf in, final T reuse, final GByteFieldInfo gByteFieldInfo) {
+            if (delegate == null) {
+                throw new IllegalStateException();
+            }
+            return delegate.read(in, reuse, gByteFieldInfo);
+        }
+
         @Override
         public void write(ByteBuf out, final T value, final GByteFieldInfo gByteFieldInfo) {
             if (delegate == null) {
@@ -132,5 +315,21 @@ public class GByte {
             }
             delegate.write(out, value, gByteFieldInfo);
         }
+
+        @Override
+        public int fixedSize(final GByteFieldInfo gByteFieldInfo) {
+            if (delegate == null) {
+                throw new IllegalStateException();
+            }
+            return delegate.fixedSize(gByteFieldInfo);
+        }
+
+        @Override
+        public int size(final T value, final GByteFieldInfo gByteFieldInfo) {
+            if (delegate == null) {
+                throw new IllegalStateException();
+            }
+            return delegate.size(value, gByteFieldInfo);
+        }
     }
 }
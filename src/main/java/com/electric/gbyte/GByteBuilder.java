@@ -1,6 +1,8 @@
 package com.electric.gbyte;
 
 import com.electric.gbyte.internal.$GByte$Preconditions;
+import com.electric.gbyte.internal.bind.GeneratedTypeAdapterFactories;
+import com.electric.gbyte.internal.bind.InterningStringTypeAdapter;
 import com.electric.gbyte.internal.bind.TypeAdapters;
 import com.electric.gbyte.reflect.TypeToken;
 import lombok.NoArgsConstructor;
@@ -21,6 +23,12 @@ public final class GByteBuilder {
 
     private final List<TypeAdapterFactory> factories = new ArrayList<>();
 
+    private boolean methodHandleAccessor = false;
+
+    private boolean generatedAdapters = true;
+
+    private int stringInternCapacity = 0;
+
     @SuppressWarnings({"unchecked", "rawtypes"})
     public GByteBuilder registerTypeAdapter(Type type, Object typeAdapter) {
         $GByte$Preconditions.checkArgument(typeAdapter instanceof InstanceCreator<?> || typeAdapter instanceof TypeAdapter<?>);
@@ -33,8 +41,54 @@ public final class GByteBuilder {
         return this;
     }
 
+    /**
+     * 自定义对象字段通过字段的MethodHandle直接读写，代替{@link java.lang.reflect.Field}反射，不调用getter/setter
+     * <p>
+     * final字段仍使用反射。MethodHandle保存在各字段的实例字段中，JIT无法将其当作常量内联，
+     * GByteBenchmark中编解码耗时与反射持平；需要消除反射开销时使用gbyte-processor生成的适配器
+     */
+    public GByteBuilder enableMethodHandleAccessor() {
+        this.methodHandleAccessor = true;
+        return this;
+    }
+
+    /**
+     * 定长字符串按原始字节缓存，重复的桩编码、枪号等解码为同一个String实例
+     */
+    public GByteBuilder enableStringIntern() {
+        return enableStringIntern(1024);
+    }
+
+    /**
+     * @param capacity 缓存的字符串个数
+     */
+    public GByteBuilder enableStringIntern(int capacity) {
+        $GByte$Preconditions.checkArgument(capacity > 0);
+        this.stringInternCapacity = capacity;
+        return this;
+    }
+
+    /**
+     * 不加载gbyte-processor编译期生成的适配器，全部通过反射编解码
+     */
+    public GByteBuilder disableGeneratedAdapters() {
+        this.generatedAdapters = false;
+        return this;
+    }
+
     public GByte create() {
-        return new GByte(instanceCreators, this.factories);
+        List<TypeAdapterFactory> f = new ArrayList<>(this.factories);
+        if (stringInternCapacity > 0) {
+            f.add(TypeAdapters.newFactory(String.class, new InterningStringTypeAdapter(stringInternCapacity)));
+        }
+        if (generatedAdapters) {
+            ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+            GeneratedTypeAdapterFactories generated = GeneratedTypeAdapterFactories.load(classLoader != null ? classLoader : GByteBuilder.class.getClassLoader());
+            if (!generated.isEmpty()) {
+                f.add(generated);
+            }
+        }
+        return new GByte(instanceCreators, f, this.methodHandleAccessor);
     }
 
 }
@@ -69,23 +69,84 @@ public class GByteUtils {
             0x43, 0x83, 0x41, 0x81, 0x80, 0x40
     };
 
+    /**
+     * CRC-16/MODBUS寄存器初始值，用于{@link #modBusCRCUpdate}增量计算
+     */
+    public static final int MOD_BUS_CRC_INIT = 0xffff;
+
+    /**
+     * slicing-by-8查找表，MOD_BUS_CRC_TABLE[k][b]为字节b之后再经过k个字节的CRC寄存器值
+     */
+    private static final int[][] MOD_BUS_CRC_TABLE = new int[8][256];
+
+    static {
+        for (int b = 0; b < 256; b++) {
+            int crc = b;
+            for (int bit = 0; bit < 8; bit++) {
+                crc = (crc & 1) != 0 ? (crc >>> 1) ^ 0xa001 : crc >>> 1;
+            }
+            MOD_BUS_CRC_TABLE[0][b] = crc;
+        }
+        for (int k = 1; k < 8; k++) {
+            for (int b = 0; b < 256; b++) {
+                int crc = MOD_BUS_CRC_TABLE[k - 1][b];
+                MOD_BUS_CRC_TABLE[k][b] = (crc >>> 8) ^ MOD_BUS_CRC_TABLE[0][crc & 0xff];
+            }
+        }
+    }
+
+    /**
+     * 读取全部可读字节，与{@link #modBusCRC(ByteBuf, int, int)}结果一致
+     */
     public static int modBusCRC(ByteBuf buf) {
-        int byCRCHi = 0xff;
-        int byCRCLo = 0xff;
+        int crc = modBusCRC(buf, buf.readerIndex(), buf.readableBytes());
+        buf.skipBytes(buf.readableBytes());
+        return crc;
+    }
 
-        int byIdx;
+    /**
+     * CRC-16/MODBUS，不移动readerIndex
+     *
+     * @return 高8位为先发送的字节，可直接writeShort
+     */
+    public static int modBusCRC(ByteBuf buf, int index, int length) {
+        return modBusCRCValue(modBusCRCUpdate(MOD_BUS_CRC_INIT, buf, index, length));
+    }
 
-        while (buf.isReadable()) {
-            short v = buf.readUnsignedByte();
-            byIdx = (byCRCHi ^ v) & 0xff;
-            byCRCHi = (byCRCLo ^ gabyCRCHi[byIdx]) & 0xff;
-            byCRCLo = gabyCRCLo[byIdx];
+    /**
+     * 在CRC寄存器上继续累加一段数据，可边写报文边计算
+     * <p>
+     * 每次取8字节查8张表，不足8字节的部分逐字节查表
+     *
+     * @param crc 首次为{@link #MOD_BUS_CRC_INIT}
+     * @return 新的寄存器值，通过{@link #modBusCRCValue}得到校验码
+     */
+    public static int modBusCRCUpdate(int crc, ByteBuf buf, int index, int length) {
+        int[][] table = MOD_BUS_CRC_TABLE;
+        int end = index + length;
+        int i = index;
+        for (; i + Long.BYTES <= end; i += Long.BYTES) {
+            long x = buf.getLongLE(i) ^ crc;
+            crc = table[7][(int) x & 0xff] ^ table[6][(int) (x >>> 8) & 0xff]
+                    ^ table[5][(int) (x >>> 16) & 0xff] ^ table[4][(int) (x >>> 24) & 0xff]
+                    ^ table[3][(int) (x >>> 32) & 0xff] ^ table[2][(int) (x >>> 40) & 0xff]
+                    ^ table[1][(int) (x >>> 48) & 0xff] ^ table[0][(int) (x >>> 56)];
         }
+        for (; i < end; i++) {
+            crc = (crc >>> 8) ^ table[0][(crc ^ buf.getByte(i)) & 0xff];
+        }
+        return crc;
+    }
 
-        int crc = byCRCHi;
-        crc = (crc & 0xff) << 8;
-        crc += byCRCLo;
-        return crc & 0xffff;
+    public static int modBusCRCUpdate(int crc, int b) {
+        return (crc >>> 8) ^ MOD_BUS_CRC_TABLE[0][(crc ^ b) & 0xff];
+    }
+
+    /**
+     * CRC寄存器转换为校验码，低字节在前，与{@link #modBusCRC(ByteBuf)}一致
+     */
+    public static int modBusCRCValue(int crc) {
+        return ((crc & 0xff) << 8) | ((crc >>> 8) & 0xff);
     }
 
     /**
@@ -139,26 +200,117 @@ public class GByteUtils {
         return (value << from) >> (Integer.SIZE - to + from);
     }
 
+    private static final long HIGH_BITS = 0x8080808080808080L;
+
+    private static final long EVEN_BYTES = 0x00ff00ff00ff00ffL;
+
+    /**
+     * 读取全部可读字节，与{@link #accSum(ByteBuf, int, int)}结果一致
+     */
     public static byte accSum(ByteBuf buf) {
-        byte temp = 0;
-        while (buf.isReadable()) {
-            temp += buf.readByte();
-        }
+        byte temp = accSum(buf, buf.readerIndex(), buf.readableBytes());
+        buf.skipBytes(buf.readableBytes());
         return temp;
     }
 
+    /**
+     * 累加和的低8位，不移动readerIndex
+     * <p>
+     * 每次取8字节，奇偶字节分别按16位分组累加，每256次合并一次以免溢出
+     */
+    public static byte accSum(ByteBuf buf, int index, int length) {
+        int end = index + length;
+        int i = index;
+        long temp = 0;
+        while (i + Long.BYTES <= end) {
+            long even = 0;
+            long odd = 0;
+            // 每组16位最多累加256个0xff，不会溢出到相邻分组
+            int batchEnd = Math.min(end - Long.BYTES, i + 255 * Long.BYTES);
+            for (; i <= batchEnd; i += Long.BYTES) {
+                long w = buf.getLong(i);
+                even += w & EVEN_BYTES;
+                odd += (w >>> 8) & EVEN_BYTES;
+            }
+            temp += sumShortLanes(even) + sumShortLanes(odd);
+        }
+
+        for (; i < end; i++) {
+            temp += buf.getByte(i);
+        }
+        return (byte) temp;
+    }
+
+    /**
+     * 读取全部可读字节，与{@link #getXor(ByteBuf, int, int)}结果一致
+     */
     public static byte getXor(ByteBuf buf) {
-        byte temp = 0;
-        while (buf.isReadable()) {
-            temp ^= buf.readByte();
+        byte temp = getXor(buf, buf.readerIndex(), buf.readableBytes());
+        buf.skipBytes(buf.readableBytes());
+        return temp;
+    }
+
+    /**
+     * 异或校验，不移动readerIndex
+     * <p>
+     * 每次异或8字节，最后折叠为1字节
+     */
+    public static byte getXor(ByteBuf buf, int index, int length) {
+        long xor = 0;
+        int end = index + length;
+        int i = index;
+        for (; i + Long.BYTES <= end; i += Long.BYTES) {
+            xor ^= buf.getLong(i);
+        }
+
+        xor ^= xor >>> 32;
+        xor ^= xor >>> 16;
+        xor ^= xor >>> 8;
+
+        byte temp = (byte) xor;
+        for (; i < end; i++) {
+            temp ^= buf.getByte(i);
         }
         return temp;
     }
 
+    /**
+     * 读取全部可读字节，与{@link #checksum(ByteBuf, int, int)}结果一致
+     */
     public static byte checksum(ByteBuf buf) {
-        int sum = 0;
-        while (buf.isReadable()) {
-            sum += buf.readByte();
+        byte temp = checksum(buf, buf.readerIndex(), buf.readableBytes());
+        buf.skipBytes(buf.readableBytes());
+        return temp;
+    }
+
+    /**
+     * 有符号字节累加，和大于0xff时取补码，返回低8位，不移动readerIndex
+     * <p>
+     * 有符号和 = 无符号和 - 256 * 最高位为1的字节数，
+     * 无符号和与{@link #accSum(ByteBuf, int, int)}相同按16位分组累加，最高位为1的字节数用bitCount统计
+     */
+    public static byte checksum(ByteBuf buf, int index, int length) {
+        long unsigned = 0;
+        long negatives = 0;
+        int end = index + length;
+        int i = index;
+        while (i + Long.BYTES <= end) {
+            long even = 0;
+            long odd = 0;
+            // 每组16位最多累加256个0xff，不会溢出到相邻分组
+            int batchEnd = Math.min(end - Long.BYTES, i + 255 * Long.BYTES);
+            for (; i <= batchEnd; i += Long.BYTES) {
+                long w = buf.getLong(i);
+                even += w & EVEN_BYTES;
+                odd += (w >>> 8) & EVEN_BYTES;
+                negatives += Long.bitCount(w & HIGH_BITS);
+            }
+            unsigned += sumShortLanes(even) + sumShortLanes(odd);
+        }
+
+        int sum = (int) (unsigned - (negatives << 8));
+        for (; i < end; i++) {
+            sum += buf.getByte(i);
         }
 
         if (sum > 0xff) {
@@ -171,6 +323,38 @@ public class GByteUtils {
         return (byte) sum;
     }
 
+    private static long sumShortLanes(long lanes) {
+        return (lanes & 0xffff) + ((lanes >>> 16) & 0xffff) + ((lanes >>> 32) & 0xffff) + (lanes >>> 48);
+    }
+
+    private static final long LOW_BITS = 0x0101010101010101L;
+
+    /**
+     * 在[fromIndex, toIndex)中查找value第一次出现的位置，不移动readerIndex
+     * <p>
+     * 每次按小端序取8字节与value逐字节异或，用(x - 0x01..) &amp; ~x &amp; 0x80..找出值为0的字节，
+     * 最低位的标记一定是真实匹配，即内存中第一个匹配的字节
+     *
+     * @return 未找到返回-1
+     */
+    public static int indexOf(ByteBuf buf, int fromIndex, int toIndex, byte value) {
+        long pattern = (value & 0xffL) * LOW_BITS;
+        int i = fromIndex;
+        for (; i + Long.BYTES <= toIndex; i += Long.BYTES) {
+            long x = buf.getLongLE(i) ^ pattern;
+            long found = (x - LOW_BITS) & ~x & HIGH_BITS;
+            if (found != 0) {
+                return i + (Long.numberOfTrailingZeros(found) >>> 3);
+            }
+        }
+        for (; i < toIndex; i++) {
+            if (buf.getByte(i) == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
     public static int calculateChecksum(ByteBuf byteBuf) {
         return calculateChecksum(byteBuf, true);
     }
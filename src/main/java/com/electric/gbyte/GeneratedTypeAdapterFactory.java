@@ -0,0 +1,17 @@
+package com.electric.gbyte;
+
+/**
+ * 编译期由gbyte-processor为带{@link com.electric.gbyte.annotations.GByteField}字段的类生成的适配器工厂
+ * <p>
+ * 通过META-INF/services注册，{@link GByteBuilder}创建时自动加载
+ *
+ * @author bingo
+ */
+public interface GeneratedTypeAdapterFactory extends TypeAdapterFactory {
+
+    /**
+     * @return 该工厂负责编解码的类
+     */
+    Class<?> getType();
+
+}
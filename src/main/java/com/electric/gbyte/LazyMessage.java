@@ -0,0 +1,180 @@
+package com.electric.gbyte;
+
+import com.electric.gbyte.annotations.GByteFieldInfo;
+import com.electric.gbyte.internal.bind.MessageLayout;
+import io.netty.buffer.ByteBuf;
+import io.netty.util.AbstractReferenceCounted;
+
+import java.util.Arrays;
+
+/**
+ * 延迟解码的报文，由{@link GByte#lazy}创建
+ * <p>
+ * 持有报文数据的retained slice，字段在首次访问时按{@link MessageLayout}中的偏移解码并缓存，
+ * 只访问少数字段时不再创建其余字段的对象。非线程安全，使用完毕后release，也可以交给pipeline自动释放
+ *
+ * @author bingo
+ */
+public final class LazyMessage<T> extends AbstractReferenceCounted {
+
+    private static final Object NOT_DECODED = new Object();
+
+    private final GByte gByte;
+
+    private final MessageLayout<T> layout;
+
+    private final int version;
+
+    private final ByteBuf data;
+
+    /**
+     * 已解码的字段值，首次访问时创建
+     */
+    private Object[] values;
+
+    /**
+     * 不定长字段之后的字段偏移，按实际数据确定，{@link TypeAdapter#UNKNOWN_SIZE}表示尚未确定
+     */
+    private int[] offsets;
+
+    LazyMessage(GByte gByte, MessageLayout<T> layout, int version, ByteBuf data) {
+        this.gByte = gByte;
+        this.layout = layout;
+        this.version = version;
+        this.data = data;
+    }
+
+    public Class<T> getType() {
+        return layout.getType();
+    }
+
+    public MessageLayout<T> getLayout() {
+        return layout;
+    }
+
+    /**
+     * 报文数据，readerIndex为报文起始
+     */
+    public ByteBuf content() {
+        return data;
+    }
+
+    public Object get(String name) {
+        return get(indexOf(name));
+    }
+
+    /**
+     * @param index 字段在{@link MessageLayout}中的下标
+     */
+    public Object get(int index) {
+        if (values != null && values[index] != NOT_DECODED) {
+            return values[index];
+        }
+        return decode(index);
+    }
+
+    /**
+     * 数字字段直接按偏移读取，不装箱也不缓存
+     */
+    public int getInt(String name) {
+        int index = indexOf(name);
+        int offset = offset(index);
+        if (offset + layout.getFieldSize(index) > data.writerIndex()) {
+            return 0;
+        }
+        return layout.getInt(index, data, offset);
+    }
+
+    public long getLong(String name) {
+        int index = indexOf(name);
+        int offset = offset(index);
+        if (offset + layout.getFieldSize(index) > data.writerIndex()) {
+            return 0;
+        }
+        return layout.getLong(index, data, offset);
+    }
+
+    /**
+     * 完整解码为协议对象
+     */
+    public T toMessage() {
+        return gByte.getAdapter(layout.getType(), version).read(data.duplicate(), GByteFieldInfo.root(version));
+    }
+
+    private int indexOf(String name) {
+        int index = layout.indexOf(name);
+        if (index < 0) {
+            throw new IllegalArgumentException(layout.getType().getName() + "的版本" + version + "中没有字段" + name);
+        }
+        return index;
+    }
+
+    private Object decode(int index) {
+        if (values == null) {
+            values = new Object[layout.getFieldCount()];
+            Arrays.fill(values, NOT_DECODED);
+        }
+
+        int offset = offset(index);
+        int end = offset;
+        Object value = null;
+        if (offset <= data.writerIndex()) {
+            int readerIndex = data.readerIndex();
+            data.readerIndex(offset);
+            value = layout.read(index, data);
+            end = data.readerIndex();
+            data.readerIndex(readerIndex);
+        }
+        if (index + 1 < values.length && layout.getOffset(index + 1) == TypeAdapter.UNKNOWN_SIZE) {
+            offsets()[index + 1] = end;
+        }
+        values[index] = value;
+        return value;
+    }
+
+    private int offset(int index) {
+        int offset = layout.getOffset(index);
+        if (offset != TypeAdapter.UNKNOWN_SIZE) {
+            return offset;
+        }
+
+        int[] resolved = offsets();
+        if (resolved[index] == TypeAdapter.UNKNOWN_SIZE) {
+            // 从最近一个已确定偏移的字段开始依次解码，得到后续字段的偏移
+            int from = index - 1;
+            while (layout.getOffset(from) == TypeAdapter.UNKNOWN_SIZE && resolved[from] == TypeAdapter.UNKNOWN_SIZE) {
+                from--;
+            }
+            for (int i = from; i < index; i++) {
+                if (values == null || values[i] == NOT_DECODED || resolved[i + 1] == TypeAdapter.UNKNOWN_SIZE) {
+                    decode(i);
+                }
+            }
+        }
+        return resolved[index];
+    }
+
+    private int[] offsets() {
+        if (offsets == null) {
+            offsets = new int[layout.getFieldCount()];
+            Arrays.fill(offsets, TypeAdapter.UNKNOWN_SIZE);
+        }
+        return offsets;
+    }
+
+    @Override
+    protected void deallocate() {
+        data.release();
+    }
+
+    @Override
+    public LazyMessage<T> touch(Object hint) {
+        data.touch(hint);
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "LazyMessage[type=" + layout.getType().getName() + ", version=" + version + ", bytes=" + data.readableBytes() + "]";
+    }
+}
@@ -0,0 +1,76 @@
+package com.electric.gbyte;
+
+import com.electric.gbyte.annotations.GByteFieldInfo;
+import io.netty.buffer.ByteBuf;
+import io.netty.util.concurrent.FastThreadLocal;
+
+import java.util.ArrayDeque;
+
+import static io.netty.util.internal.ObjectUtil.checkNotNull;
+import static io.netty.util.internal.ObjectUtil.checkPositive;
+
+/**
+ * 按线程缓存的协议对象池，心跳、状态等高频报文解码时复用已回收的对象
+ * <p>
+ * 对象只在同一线程内回收和复用，通常是连接所在的EventLoop：只有调用过{@link #decode}的线程才有池，
+ * 在其它线程（如业务线程池）回收的对象不入池，直接交给GC，不会在不解码的线程中堆积。
+ * 复用的对象解码前字段重置为0、false或null，不保留上一帧的值，回收后不能再持有其引用
+ * <p>
+ * 每个实例占用一个{@link FastThreadLocal}下标，Netty不会回收该下标，应按报文类型创建一次并共享，不要按连接或按帧创建
+ *
+ * @author bingo
+ */
+public final class MessageRecycler<T> {
+
+    public static final int DEFAULT_MAX_CAPACITY_PER_THREAD = 256;
+
+    private final Class<T> type;
+
+    private final TypeAdapter<T> typeAdapter;
+
+    private final GByteFieldInfo gByteFieldInfo;
+
+    private final int maxCapacityPerThread;
+
+    private final FastThreadLocal<ArrayDeque<T>> pool = new FastThreadLocal<>() {
+        @Override
+        protected ArrayDeque<T> initialValue() {
+            return new ArrayDeque<>();
+        }
+    };
+
+    public MessageRecycler(GByte gByte, Class<T> type, int version) {
+        this(gByte, type, version, DEFAULT_MAX_CAPACITY_PER_THREAD);
+    }
+
+    public MessageRecycler(GByte gByte, Class<T> type, int version, int maxCapacityPerThread) {
+        this.type = checkNotNull(type, "type");
+        this.typeAdapter = checkNotNull(gByte, "gByte").getAdapter(type, version);
+        this.gByteFieldInfo = GByteFieldInfo.root(version);
+        this.maxCapacityPerThread = checkPositive(maxCapacityPerThread, "maxCapacityPerThread");
+    }
+
+    /**
+     * 解码一条报文，池中有对象时解码到该对象中
+     */
+    public T decode(ByteBuf in) {
+        return typeAdapter.read(in, pool.get().pollLast(), gByteFieldInfo);
+    }
+
+    /**
+     * 归还对象，供当前线程之后的decode复用
+     *
+     * @return 当前线程未调用过decode或池已满时返回false，对象交给GC
+     */
+    public boolean recycle(T msg) {
+        if (msg.getClass() != type) {
+            throw new IllegalArgumentException("不能回收" + msg.getClass().getName() + "，应为" + type.getName());
+        }
+        ArrayDeque<T> objects = pool.getIfExists();
+        if (objects == null || objects.size() >= maxCapacityPerThread) {
+            return false;
+        }
+        objects.addLast(msg);
+        return true;
+    }
+}
@@ -0,0 +1,97 @@
+package com.electric.gbyte;
+
+import com.electric.gbyte.internal.bind.MessageLayout;
+import io.netty.buffer.ByteBuf;
+
+import java.math.BigDecimal;
+
+/**
+ * 定长协议的只读视图，由{@link GByte#view}创建
+ * <p>
+ * 每帧通过{@link #wrap}重新指向新的数据，不创建协议对象，数字字段按配置的字节序和偏移直接从ByteBuf读取。
+ * 字段下标通过{@link #field}预先取得，读取时不再按名称查找。非线程安全，不持有数据的引用计数
+ *
+ * @author bingo
+ */
+public final class MessageView<T> {
+
+    private final MessageLayout<T> layout;
+
+    private final int size;
+
+    private ByteBuf buf;
+
+    private int base;
+
+    MessageView(MessageLayout<T> layout) {
+        if (layout.getFixedSize() == TypeAdapter.UNKNOWN_SIZE) {
+            throw new IllegalArgumentException(layout.getType().getName() + "含不定长字段，不能创建视图");
+        }
+        this.layout = layout;
+        this.size = layout.getFixedSize();
+    }
+
+    /**
+     * 字段下标，在读取前取得一次
+     */
+    public int field(String name) {
+        int index = layout.indexOf(name);
+        if (index < 0) {
+            throw new IllegalArgumentException(layout.getType().getName() + "中没有字段" + name);
+        }
+        return index;
+    }
+
+    /**
+     * 指向buf中从offset开始的一条报文，不移动readerIndex
+     */
+    public MessageView<T> wrap(ByteBuf buf, int offset) {
+        if (offset < 0 || offset + size > buf.writerIndex()) {
+            throw new IndexOutOfBoundsException("offset: " + offset + ", size: " + size + ", writerIndex: " + buf.writerIndex());
+        }
+        this.buf = buf;
+        this.base = offset;
+        return this;
+    }
+
+    /**
+     * 指向buf中readerIndex处的一条报文
+     */
+    public MessageView<T> wrap(ByteBuf buf) {
+        return wrap(buf, buf.readerIndex());
+    }
+
+    /**
+     * 报文编码后的长度，连续存放的多条报文按此步进
+     */
+    public int size() {
+        return size;
+    }
+
+    public int getInt(int field) {
+        return layout.getInt(field, buf, base + layout.getOffset(field));
+    }
+
+    public long getLong(int field) {
+        return layout.getLong(field, buf, base + layout.getOffset(field));
+    }
+
+    public boolean getBoolean(int field) {
+        return layout.getBoolean(field, buf, base + layout.getOffset(field));
+    }
+
+    public BigDecimal getBigDecimal(int field) {
+        return layout.getBigDecimal(field, buf, base + layout.getOffset(field));
+    }
+
+    public Fixed getFixed(int field) {
+        return layout.getFixed(field, buf, base + layout.getOffset(field));
+    }
+
+    /**
+     * 其它类型的字段，每次读取都会解码
+     */
+    public Object get(int field) {
+        return layout.read(field, buf.duplicate().readerIndex(base + layout.getOffset(field)));
+    }
+}
@@ -9,8 +9,48 @@ import io.netty.buffer.ByteBuf;
  */
 public abstract class TypeAdapter<T> {
 
+    /**
+     * 编码长度无法预先确定
+     */
+    public static final int UNKNOWN_SIZE = -1;
+
     public abstract T read(final ByteBuf in, final GByteFieldInfo gByteFieldInfo);
 
+    /**
+     * 解码到已有的对象中，协议对象的适配器覆盖此方法以复用对象
+     *
+     * @param reuse 为null时与{@link #read(ByteBuf, GByteFieldInfo)}相同
+     * @return 不支持复用时返回新对象
+     */
+    public T read(final ByteBuf in, final T reuse, final GByteFieldInfo gByteFieldInfo) {
+        return read(in, gByteFieldInfo);
+    }
+
     public abstract void write(ByteBuf out, final T value, final GByteFieldInfo gByteFieldInfo);
 
+    /**
+     * 仅由字段元信息决定的编码长度
+     *
+     * @return 长度随值变化时返回{@link #UNKNOWN_SIZE}
+     */
+    public int fixedSize(final GByteFieldInfo gByteFieldInfo) {
+        return UNKNOWN_SIZE;
+    }
+
+    /**
+     * 写入value需要的字节数
+     *
+     * @return 无法确定时返回{@link #UNKNOWN_SIZE}
+     */
+    public int size(final T value, final GByteFieldInfo gByteFieldInfo) {
+        return fixedSize(gByteFieldInfo);
+    }
+
+    /**
+     * 累加长度，任一为{@link #UNKNOWN_SIZE}时结果为{@link #UNKNOWN_SIZE}
+     */
+    public static int addSize(int size, int fieldSize) {
+        return size < 0 || fieldSize < 0 ? UNKNOWN_SIZE : size + fieldSize;
+    }
+
 }
@@ -0,0 +1,29 @@
+package com.electric.gbyte.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 报文标识
+ * <p>
+ * 标注在协议类上，由{@link com.electric.gbyte.decoder.CommandRegistry}按标识分发和编码
+ *
+ * @author bingo
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface GByteCommand {
+
+    /**
+     * 报文标识，0～65535
+     */
+    int value();
+
+    /**
+     * 数据域长度，-1表示通过getLength(Integer)获取，没有该方法时按字段计算
+     */
+    int length() default -1;
+
+}
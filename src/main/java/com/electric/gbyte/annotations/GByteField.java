@@ -33,7 +33,7 @@ public @interface GByteField {
     int length() default 0;
 
     /**
-     * 字符串编码类型ASCII或者BCD
+     * 字符串编码类型ASCII或者BCD，数字字段声明BCD时按压缩BCD码读写
      */
     byte stringType() default Constant.STRING_ASCII;
 
@@ -53,4 +53,24 @@ public @interface GByteField {
      */
     int offsetNum() default 0;
 
+    /**
+     * 基本类型数组每个元素的字节长度，此时length为元素个数
+     * 默认为0，与原先一致每个元素也是length字节；byte[]不使用该值，每个元素1字节
+     * 例如3个u16的电压采样读为int[]，则length为3，elementLength为2
+     */
+    int elementLength() default 0;
+
+    /**
+     * 位字段的起始位，从最低位开始计
+     */
+    int bitOffset() default 0;
+
+    /**
+     * 位字段的位数，默认为0，不是位字段
+     * 连续的位字段共用length字节的数据，读取时一次取出后拆分到各字段，写入时合并后一次写入，
+     * 与组内已有字段的位重叠时开始新的数据，与声明顺序无关。字段可以是boolean、byte、short、int、long及其包装类型和枚举（按ordinal）
+     * 例如1字节的状态中第0位为告警、第1~2位为工作模式，则两个字段length都为1，bitOffset分别为0和1，bitLength分别为1和2
+     */
+    int bitLength() default 0;
+
 }
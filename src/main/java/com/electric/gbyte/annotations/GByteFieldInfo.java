@@ -1,45 +1,117 @@
 package com.electric.gbyte.annotations;
 
 import com.electric.gbyte.Constant;
+import com.electric.gbyte.internal.VersionCache;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
-import lombok.Data;
-import lombok.NoArgsConstructor;
+import lombok.Builder;
+import lombok.Value;
 
 import java.nio.ByteOrder;
 
 /**
  * 协议中每个字段的元信息
+ * <p>
+ * 不可变，通过{@link #builder()}、{@link #of}和{@link #root}获取，可以跨线程缓存
  *
  * @author bingo
  */
-@Data
-@NoArgsConstructor
-@AllArgsConstructor
+@Value
+@Builder
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
 public class GByteFieldInfo {
 
+    /**
+     * 按版本号缓存的顶层元信息，任意版本号查找时都不分配对象
+     */
+    private static final VersionCache<GByteFieldInfo> ROOTS = new VersionCache<>();
+
     // 默认小端序
-    private ByteOrder byteOrder = ByteOrder.LITTLE_ENDIAN;
+    @Builder.Default
+    ByteOrder byteOrder = ByteOrder.LITTLE_ENDIAN;
 
-    private int minVersion = 1;
+    @Builder.Default
+    int minVersion = 1;
 
-    private int maxVersion = Integer.MAX_VALUE;
+    @Builder.Default
+    int maxVersion = Integer.MAX_VALUE;
 
     // 当前使用的协议文档版本
-    private int currentVersion = 1;
+    @Builder.Default
+    int currentVersion = 1;
 
-    private int length = 0;
+    int length;
 
-    private byte stringType = Constant.STRING_ASCII;
+    @Builder.Default
+    byte stringType = Constant.STRING_ASCII;
 
     // 字符串末尾填充
-    private int stringFill = 0;
+    int stringFill;
+
+    @Builder.Default
+    byte offsetType = Constant.NUMBER_OFFSET;
+
+    int offsetNum;
 
-    private byte offsetType = Constant.NUMBER_OFFSET;
+    // 数组元素的字节长度，为0时每个元素也是length字节
+    int elementLength;
 
-    private int offsetNum = 0;
+    // 位字段的起始位和位数，bitLength为0时不是位字段
+    int bitOffset;
+
+    int bitLength;
+
+    /**
+     * @deprecated 元信息不可变，使用{@link #builder()}
+     */
+    @Deprecated
+    public GByteFieldInfo() {
+        this(1);
+    }
 
+    /**
+     * @deprecated 使用{@link #root(int)}
+     */
+    @Deprecated
     public GByteFieldInfo(int currentVersion) {
-        this.currentVersion = currentVersion;
+        this(ByteOrder.LITTLE_ENDIAN, 1, Integer.MAX_VALUE, currentVersion, 0, Constant.STRING_ASCII, 0, Constant.NUMBER_OFFSET, 0);
     }
 
+    /**
+     * @deprecated 使用{@link #builder()}
+     */
+    @Deprecated
+    public GByteFieldInfo(ByteOrder byteOrder, int minVersion, int maxVersion, int currentVersion, int length,
+                          byte stringType, int stringFill, byte offsetType, int offsetNum) {
+        this(byteOrder, minVersion, maxVersion, currentVersion, length, stringType, stringFill, offsetType, offsetNum, 0, 0, 0);
+    }
+
+    /**
+     * 顶层对象使用的默认元信息
+     */
+    public static GByteFieldInfo root(int currentVersion) {
+        GByteFieldInfo root = ROOTS.get(currentVersion);
+        if (root == null) {
+            root = builder().currentVersion(currentVersion).build();
+            ROOTS.put(currentVersion, root);
+        }
+        return root;
+    }
+
+    public static GByteFieldInfo of(GByteField byteField, int currentVersion) {
+        return builder()
+                .byteOrder(byteField.littleEndian() ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN)
+                .minVersion(byteField.minVersion())
+                .maxVersion(byteField.maxVersion())
+                .currentVersion(currentVersion)
+                .length(byteField.length())
+                .stringType(byteField.stringType())
+                .stringFill(byteField.stringFill())
+                .offsetType(byteField.offsetType())
+                .offsetNum(byteField.offsetNum())
+                .elementLength(byteField.elementLength())
+                .bitOffset(byteField.bitOffset())
+                .bitLength(byteField.bitLength())
+                .build();
+    }
 }
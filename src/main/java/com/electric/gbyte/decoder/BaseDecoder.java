@@ -1,5 +1,6 @@
 package com.electric.gbyte.decoder;
 
+import com.electric.gbyte.GByteUtils;
 import io.netty.buffer.ByteBuf;
 import io.netty.handler.codec.ByteToMessageDecoder;
 import io.netty.handler.codec.CorruptedFrameException;
@@ -41,11 +42,38 @@ public abstract class BaseDecoder extends ByteToMessageDecoder {
 
     private long bytesToDiscard;
 
+    /**
+     * 已定位到报文头，报文分多次到达时不再重复查找
+     */
+    private boolean headerFound;
+
+    /**
+     * 已解析出但尚未收全的报文长度，-1表示没有
+     */
+    private int pendingFrameLength = -1;
+
     protected final int headerValue;
 
     protected final int headerLength;
 
+    /**
+     * 报文头字节序列，按发送顺序
+     */
+    protected final byte[] header;
+
+    /**
+     * @param headerValue  报文头，按大端序比较
+     * @param headerLength 报文头长度，0表示不查找报文头
+     */
     public BaseDecoder(ByteOrder byteOrder, int maxFrameLength, int lengthFieldOffset, int lengthFieldLength, int lengthAdjustment, int initialBytesToStrip, boolean failFast, int headerValue, int headerLength) {
+        this(byteOrder, maxFrameLength, lengthFieldOffset, lengthFieldLength, lengthAdjustment, initialBytesToStrip, failFast,
+                toHeader(headerValue, checkInRange(headerLength, 0, 2, "headerLength")));
+    }
+
+    /**
+     * @param header 任意长度的报文头字节序列，例如0x68 0x00 0x00 0x68，空数组表示不查找报文头
+     */
+    public BaseDecoder(ByteOrder byteOrder, int maxFrameLength, int lengthFieldOffset, int lengthFieldLength, int lengthAdjustment, int initialBytesToStrip, boolean failFast, byte[] header) {
 
         this.byteOrder = checkNotNull(byteOrder, "byteOrder");
 
@@ -55,7 +83,7 @@ public abstract class BaseDecoder extends ByteToMessageDecoder {
 
         checkPositiveOrZero(initialBytesToStrip, "initialBytesToStrip");
 
-        checkInRange(headerLength, 0, 2, "headerLength");
+        checkNotNull(header, "header");
 
         if (lengthFieldOffset > maxFrameLength - lengthFieldLength) {
             throw new IllegalArgumentException("maxFrameLength (" + maxFrameLength + ") must be equal to or greater than lengthFieldOffset (" + lengthFieldOffset + ") + lengthFieldLength (" + lengthFieldLength + ").");
@@ -69,51 +97,103 @@ public abstract class BaseDecoder extends ByteToMessageDecoder {
         this.initialBytesToStrip = initialBytesToStrip;
         this.failFast = failFast;
 
-        this.headerValue = headerValue;
-        this.headerLength = headerLength;
+        this.header = header.clone();
+        this.headerLength = header.length;
+        int value = 0;
+        for (int i = 0; i < Math.min(header.length, Integer.BYTES); i++) {
+            value = (value << 8) | (header[i] & 0xff);
+        }
+        this.headerValue = value;
     }
 
-    private boolean findHeaderPos(ByteBuf in) {
+    private static byte[] toHeader(int headerValue, int headerLength) {
+        byte[] header = new byte[headerLength];
+        for (int i = 0; i < headerLength; i++) {
+            header[i] = (byte) (headerValue >>> (8 * (headerLength - 1 - i)));
+        }
+        return header;
+    }
+
+    /**
+     * 将readerIndex移动到第一个报文头处
+     * <p>
+     * 先按8字节一组查找报文头首字节，再比较其余字节；未找到时丢弃可以丢弃的字节，保留末尾headerLength - 1个字节
+     *
+     * @return 是否找到报文头
+     */
+    protected boolean findHeaderPos(ByteBuf in) {
         if (in.readableBytes() < this.headerLength) {
             return false;
         }
 
-        while (true) {
-            in.markReaderIndex();
-
-            if (this.headerLength == 1) {
-                if (in.readUnsignedByte() == this.headerValue) {
-                    break;
-                }
-            } else if (this.headerLength == 2) {
-                if (in.readUnsignedShort() == this.headerValue) {
-                    break;
-                }
+        byte first = this.header[0];
+        // 报文头可以开始的最后位置
+        int last = in.writerIndex() - this.headerLength;
+        int from = in.readerIndex();
+        while (from <= last) {
+            int pos = GByteUtils.indexOf(in, from, last + 1, first);
+            if (pos < 0) {
+                break;
             }
+            if (headerMatches(in, pos)) {
+                in.readerIndex(pos);
+                return true;
+            }
+            from = pos + 1;
+        }
 
-            in.resetReaderIndex();
-            in.skipBytes(1);
+        in.readerIndex(last + 1);
+        return false;
+    }
 
-            if (in.readableBytes() < this.headerLength) {
+    private boolean headerMatches(ByteBuf in, int index) {
+        for (int i = 1; i < this.headerLength; i++) {
+            if (in.getByte(index + i) != this.header[i]) {
                 return false;
             }
         }
-
-        in.resetReaderIndex();
-
         return true;
     }
 
+    /**
+     * 报文未收全时记住报文头位置和报文长度，下次调用只判断可读字节数，两次调用之间readerIndex需保持在报文起始处
+     */
     protected ByteBuf findCompletePacket(ByteBuf in) {
-        if (this.headerLength > 0) {
+        if (this.headerLength > 0 && !this.headerFound) {
             if (!this.findHeaderPos(in)) {
                 return null;
             }
+            this.headerFound = true;
         }
 
         return this.findCompletePacketData(in);
     }
 
+    /**
+     * 一次取出累积缓冲区中的全部完整报文，不必每个报文都重新进入decode
+     *
+     * @return 访问的报文个数
+     */
+    protected int forEachCompletePacket(ByteBuf in, FrameVisitor visitor) throws Exception {
+        int count = 0;
+        ByteBuf frame;
+        while ((frame = this.findCompletePacket(in)) != null) {
+            count++;
+            if (!visitor.visit(frame)) {
+                break;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 丢弃已记住的报文头位置和报文长度，调用方自行移动了readerIndex时使用
+     */
+    protected void resetFrameState() {
+        this.headerFound = false;
+        this.pendingFrameLength = -1;
+    }
+
     private void discardingTooLongFrame(ByteBuf in) {
         long bytesToDiscard = this.bytesToDiscard;
         int localBytesToDiscard = (int) Math.min(bytesToDiscard, in.readableBytes());
@@ -156,49 +236,71 @@ public abstract class BaseDecoder extends ByteToMessageDecoder {
     }
 
     protected ByteBuf findCompletePacketData(ByteBuf in) {
+        int frameLengthInt = this.pendingFrameLength;
+        if (frameLengthInt < 0) {
+            frameLengthInt = parseFrameLength(in);
+            if (frameLengthInt < 0) {
+                return null;
+            }
+        }
+
+        if (in.readableBytes() < frameLengthInt) {
+            this.pendingFrameLength = frameLengthInt;
+            return null;
+        }
+
+        resetFrameState();
+
+        if (initialBytesToStrip > frameLengthInt) {
+            failOnFrameLengthLessThanInitialBytesToStrip(in, frameLengthInt, initialBytesToStrip);
+        }
+        in.skipBytes(initialBytesToStrip);
+
+        // extract frame
+        int readerIndex = in.readerIndex();
+        int actualFrameLength = frameLengthInt - initialBytesToStrip;
+        ByteBuf frame = in.slice(readerIndex, actualFrameLength);
+        in.readerIndex(readerIndex + actualFrameLength);
+        return frame;
+    }
+
+    /**
+     * 解析并校验长度域
+     *
+     * @return 报文总长度，长度域未收全或报文过长被丢弃时返回-1
+     */
+    private int parseFrameLength(ByteBuf in) {
         if (discardingTooLongFrame) {
             discardingTooLongFrame(in);
         }
 
         if (in.readableBytes() < lengthFieldEndOffset) {
-            return null;
+            return -1;
         }
 
         int actualLengthFieldOffset = in.readerIndex() + lengthFieldOffset;
         long frameLength = getUnadjustedFrameLength(in, actualLengthFieldOffset, lengthFieldLength, byteOrder);
 
         if (frameLength < 0) {
+            resetFrameState();
             failOnNegativeLengthField(in, frameLength, lengthFieldEndOffset);
         }
 
         frameLength += lengthAdjustment + lengthFieldEndOffset;
 
         if (frameLength < lengthFieldEndOffset) {
+            resetFrameState();
             failOnFrameLengthLessThanLengthFieldEndOffset(in, frameLength, lengthFieldEndOffset);
         }
 
         if (frameLength > maxFrameLength) {
+            resetFrameState();
             exceededFrameLength(in, frameLength);
-            return null;
+            return -1;
         }
 
         // never overflows because it's less than maxFrameLength
-        int frameLengthInt = (int) frameLength;
-        if (in.readableBytes() < frameLengthInt) {
-            return null;
-        }
-
-        if (initialBytesToStrip > frameLengthInt) {
-            failOnFrameLengthLessThanInitialBytesToStrip(in, frameLength, initialBytesToStrip);
-        }
-        in.skipBytes(initialBytesToStrip);
-
-        // extract frame
-        int readerIndex = in.readerIndex();
-        int actualFrameLength = frameLengthInt - initialBytesToStrip;
-        ByteBuf frame = in.slice(readerIndex, actualFrameLength);
-        in.readerIndex(readerIndex + actualFrameLength);
-        return frame;
+        return (int) frameLength;
     }
 
     protected long getUnadjustedFrameLength(ByteBuf buf, int offset, int length, ByteOrder order) {
@@ -0,0 +1,40 @@
+package com.electric.gbyte.decoder;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.MessageToByteEncoder;
+
+import static io.netty.util.internal.ObjectUtil.checkNotNull;
+
+/**
+ * 按{@link CommandRegistry}缓存的报文标识和长度编码下行协议
+ * <p>
+ * 子类写入报文头、数据域（{@link CommandRegistry#encode}）和校验码
+ *
+ * @author bingo
+ */
+public abstract class CommandEncoder extends MessageToByteEncoder<Object> {
+
+    protected final CommandRegistry registry;
+
+    protected CommandEncoder(CommandRegistry registry) {
+        this.registry = checkNotNull(registry, "registry");
+    }
+
+    @Override
+    protected void encode(ChannelHandlerContext ctx, Object msg, ByteBuf out) throws Exception {
+        int version = getVersion(ctx);
+        encode(ctx, msg, registry.getCommand(msg, version), registry.getLength(msg, version), version, out);
+    }
+
+    /**
+     * 当前连接使用的协议文档版本
+     */
+    protected abstract int getVersion(ChannelHandlerContext ctx);
+
+    /**
+     * @param command 报文标识，未声明时为{@link CommandRegistry#UNKNOWN}
+     * @param length  数据域长度，无法确定时为{@link CommandRegistry#UNKNOWN}
+     */
+    protected abstract void encode(ChannelHandlerContext ctx, Object msg, int command, int length, int version, ByteBuf out) throws Exception;
+}
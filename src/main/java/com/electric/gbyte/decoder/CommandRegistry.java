@@ -0,0 +1,252 @@
+package com.electric.gbyte.decoder;
+
+import com.electric.gbyte.GByte;
+import com.electric.gbyte.TypeAdapter;
+import com.electric.gbyte.annotations.GByteCommand;
+import com.electric.gbyte.annotations.GByteFieldInfo;
+import com.electric.gbyte.internal.VersionCache;
+import io.netty.buffer.ByteBuf;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static io.netty.util.internal.ObjectUtil.checkNotNull;
+
+/**
+ * 报文标识与协议类的映射，按报文标识分发解码
+ * <p>
+ * 创建时一次性解析协议类，解码时按报文标识取数组下标；适配器、报文标识和长度按版本号缓存，
+ * 编解码过程中不再反射调用getCommand/getLength，也不装箱报文标识
+ * <p>
+ * 报文标识优先取{@link GByteCommand}，其次兼容静态的getCommand()或getCommand(Integer)，
+ * 长度优先取{@link GByteCommand#length()}，其次兼容getLength(Integer)，都没有时按字段计算（{@link GByte#encodedSize(Object, int)}），
+ * 两个方法的返回值只能与版本号有关，每个版本只调用一次
+ *
+ * @author bingo
+ */
+public final class CommandRegistry {
+
+    /**
+     * 未声明报文标识或长度
+     */
+    public static final int UNKNOWN = -1;
+
+    private static final int MAX_COMMAND = 0xffff;
+
+    private final GByte gByte;
+
+    /**
+     * 下标为报文标识
+     */
+    private final Entry[] commands;
+
+    /**
+     * 属于当前实例，缓存的适配器引用着GByte，不能放在ClassValue中被Class持有
+     */
+    private final Map<Class<?>, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * @param types 上行协议类，需声明报文标识且不能重复
+     */
+    public CommandRegistry(GByte gByte, Collection<? extends Class<?>> types) {
+        this.gByte = checkNotNull(gByte, "gByte");
+
+        int maxCommand = UNKNOWN;
+        for (Class<?> type : types) {
+            int command = entry(type).command;
+            if (command == UNKNOWN) {
+                throw new IllegalArgumentException("未声明报文标识: " + type.getName());
+            }
+            maxCommand = Math.max(maxCommand, command);
+        }
+
+        Entry[] commands = new Entry[maxCommand + 1];
+        for (Class<?> type : types) {
+            Entry entry = entry(type);
+            Entry existing = commands[entry.command];
+            if (existing != null && existing != entry) {
+                throw new IllegalArgumentException(String.format("报文标识0x%02X重复: %s, %s", entry.command, existing.type.getName(), type.getName()));
+            }
+            commands[entry.command] = entry;
+        }
+        this.commands = commands;
+    }
+
+    public boolean contains(int command) {
+        return find(command) != null;
+    }
+
+    /**
+     * @return 未注册时返回null
+     */
+    public Class<?> getType(int command) {
+        Entry entry = find(command);
+        return entry != null ? entry.type : null;
+    }
+
+    /**
+     * 按报文标识解码数据域
+     *
+     * @return 未注册的报文标识返回null，不读取数据
+     */
+    public Object decode(int command, ByteBuf in, int version) {
+        Entry entry = find(command);
+        if (entry == null) {
+            return null;
+        }
+        return entry.adapter(gByte, version).read(in, GByteFieldInfo.root(version));
+    }
+
+    /**
+     * 按报文标识解码数据域，解码后把读取的字节累加到checksum，与{@link GByte#fromByteBuf(ByteBuf, Class, int, RunningChecksum)}一样只是便捷封装
+     *
+     * @return 未注册的报文标识返回null，不读取数据
+     */
+    public Object decode(int command, ByteBuf in, int version, RunningChecksum checksum) {
+        Entry entry = find(command);
+        if (entry == null) {
+            return null;
+        }
+
+        int start = in.readerIndex();
+        Object value = entry.adapter(gByte, version).read(in, GByteFieldInfo.root(version));
+        checksum.update(in, start, in.readerIndex() - start);
+        return value;
+    }
+
+    /**
+     * 编码数据域，报文头和校验码由调用方写入
+     */
+    public void encode(ByteBuf out, Object msg, int version) {
+        entry(msg.getClass()).adapter(gByte, version).write(out, msg, GByteFieldInfo.root(version));
+    }
+
+    /**
+     * @return 未声明时返回{@link #UNKNOWN}
+     */
+    public int getCommand(Object msg, int version) {
+        return entry(msg.getClass()).command(msg, version);
+    }
+
+    /**
+     * @return 无法确定时返回{@link #UNKNOWN}
+     */
+    public int getLength(Object msg, int version) {
+        Entry entry = entry(msg.getClass());
+        int length = entry.length(msg, version);
+        return length != UNKNOWN ? length : entry.adapter(gByte, version).size(msg, GByteFieldInfo.root(version));
+    }
+
+    private Entry entry(Class<?> type) {
+        Entry entry = entries.get(type);
+        return entry != null ? entry : entries.computeIfAbsent(type, Entry::new);
+    }
+
+    private Entry find(int command) {
+        return command >= 0 && command < commands.length ? commands[command] : null;
+    }
+
+    private static final class Entry {
+
+        final Class<?> type;
+
+        /**
+         * 不随版本变化的报文标识，为UNKNOWN时按版本号调用commandMethod
+         */
+        final int command;
+
+        /**
+         * 注解声明的长度，为UNKNOWN时按版本号调用lengthMethod
+         */
+        final int length;
+
+        final Method commandMethod;
+
+        final Method lengthMethod;
+
+        final VersionCache<TypeAdapter<Object>> adapters = new VersionCache<>();
+
+        final VersionCache<Integer> commands = new VersionCache<>();
+
+        final VersionCache<Integer> lengths = new VersionCache<>();
+
+        Entry(Class<?> type) {
+            this.type = type;
+
+            GByteCommand gByteCommand = type.getAnnotation(GByteCommand.class);
+            Method staticCommandMethod = gByteCommand == null ? findMethod(type, "getCommand") : null;
+            if (gByteCommand != null) {
+                this.command = checkCommand(type, gByteCommand.value());
+            } else if (staticCommandMethod != null && Modifier.isStatic(staticCommandMethod.getModifiers())) {
+                this.command = checkCommand(type, (Integer) invoke(staticCommandMethod, null));
+            } else {
+                this.command = UNKNOWN;
+            }
+            this.commandMethod = command == UNKNOWN ? findMethod(type, "getCommand", Integer.class) : null;
+
+            this.length = gByteCommand != null ? gByteCommand.length() : UNKNOWN;
+            this.lengthMethod = length == UNKNOWN ? findMethod(type, "getLength", Integer.class) : null;
+        }
+
+        @SuppressWarnings("unchecked")
+        TypeAdapter<Object> adapter(GByte gByte, int version) {
+            TypeAdapter<Object> cached = adapters.get(version);
+            if (cached == null) {
+                cached = (TypeAdapter<Object>) gByte.getAdapter(type, version);
+                adapters.put(version, cached);
+            }
+            return cached;
+        }
+
+        int command(Object msg, int version) {
+            return command != UNKNOWN ? command : cached(commands, commandMethod, msg, version);
+        }
+
+        int length(Object msg, int version) {
+            return length != UNKNOWN ? length : cached(lengths, lengthMethod, msg, version);
+        }
+
+        /**
+         * 每个版本只反射调用一次，之后取缓存中已装箱的值
+         */
+        private static int cached(VersionCache<Integer> values, Method method, Object msg, int version) {
+            if (method == null) {
+                return UNKNOWN;
+            }
+
+            Integer value = values.get(version);
+            if (value == null) {
+                value = (Integer) invoke(method, msg, version);
+                values.put(version, value);
+            }
+            return value;
+        }
+
+        private static int checkCommand(Class<?> type, int command) {
+            if (command < 0 || command > MAX_COMMAND) {
+                throw new IllegalArgumentException("报文标识超出范围: " + type.getName() + ", " + command);
+            }
+            return command;
+        }
+
+        private static Method findMethod(Class<?> type, String name, Class<?>... parameterTypes) {
+            try {
+                Method method = type.getMethod(name, parameterTypes);
+                return method.getReturnType() == int.class || method.getReturnType() == Integer.class ? method : null;
+            } catch (NoSuchMethodException e) {
+                return null;
+            }
+        }
+
+        private static Object invoke(Method method, Object target, Object... args) {
+            try {
+                return method.invoke(target, args);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("GByte invoke " + method + " failed", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.electric.gbyte.decoder;
+
+import com.electric.gbyte.GByteUtils;
+import io.netty.buffer.ByteBuf;
+
+/**
+ * 报文末尾的校验码
+ * <p>
+ * 可分段累加：从{@link #init()}开始逐段{@link #update}，最后由{@link #value}得到校验码
+ *
+ * @author bingo
+ */
+public enum FrameChecksum {
+
+    NONE(0) {
+        @Override
+        public int update(int state, ByteBuf buf, int index, int length) {
+            return state;
+        }
+    },
+
+    /**
+     * 异或，{@link GByteUtils#getXor(ByteBuf, int, int)}
+     */
+    XOR(1) {
+        @Override
+        public int update(int state, ByteBuf buf, int index, int length) {
+            return (state ^ GByteUtils.getXor(buf, index, length)) & 0xff;
+        }
+    },
+
+    /**
+     * 累加和低8位，{@link GByteUtils#accSum(ByteBuf, int, int)}
+     */
+    SUM(1) {
+        @Override
+        public int update(int state, ByteBuf buf, int index, int length) {
+            return (state + GByteUtils.accSum(buf, index, length)) & 0xff;
+        }
+    },
+
+    /**
+     * CRC-16/MODBUS，低字节在前，{@link GByteUtils#modBusCRC(ByteBuf, int, int)}
+     */
+    CRC16_MODBUS(2) {
+        @Override
+        public int init() {
+            return GByteUtils.MOD_BUS_CRC_INIT;
+        }
+
+        @Override
+        public int update(int state, ByteBuf buf, int index, int length) {
+            return GByteUtils.modBusCRCUpdate(state, buf, index, length);
+        }
+
+        @Override
+        public int value(int state) {
+            return GByteUtils.modBusCRCValue(state);
+        }
+    };
+
+    /**
+     * 校验码字节数
+     */
+    private final int length;
+
+    FrameChecksum(int length) {
+        this.length = length;
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * 累加的初始值
+     */
+    public int init() {
+        return 0;
+    }
+
+    /**
+     * 在state上继续累加[index, index + length)，不移动readerIndex
+     */
+    public abstract int update(int state, ByteBuf buf, int index, int length);
+
+    /**
+     * 累加结果转换为校验码
+     */
+    public int value(int state) {
+        return state;
+    }
+
+    /**
+     * 计算[index, index + length)的校验码，不移动readerIndex
+     */
+    public int compute(ByteBuf buf, int index, int length) {
+        return value(update(init(), buf, index, length));
+    }
+
+    /**
+     * 按发送顺序写入校验码
+     */
+    public void write(ByteBuf out, int value) {
+        switch (length) {
+            case 1 -> out.writeByte(value);
+            case 2 -> out.writeShort(value);
+            default -> {
+            }
+        }
+    }
+
+    /**
+     * 按发送顺序读取校验码，不移动readerIndex
+     */
+    public int get(ByteBuf buf, int index) {
+        return switch (length) {
+            case 1 -> buf.getUnsignedByte(index);
+            case 2 -> buf.getUnsignedShort(index);
+            default -> 0;
+        };
+    }
+}
@@ -0,0 +1,18 @@
+package com.electric.gbyte.decoder;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * 访问一次解码中取出的每个完整报文
+ *
+ * @author bingo
+ */
+@FunctionalInterface
+public interface FrameVisitor {
+
+    /**
+     * @param frame 累积缓冲区的切片，仅在回调内有效，需要保留时调用retain
+     * @return 是否继续取下一个报文
+     */
+    boolean visit(ByteBuf frame) throws Exception;
+}
@@ -0,0 +1,139 @@
+package com.electric.gbyte.decoder;
+
+import com.electric.gbyte.GByte;
+import com.electric.gbyte.TypeAdapter;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+
+import java.nio.ByteOrder;
+
+import static io.netty.util.internal.ObjectUtil.*;
+
+/**
+ * 在一个缓冲区中组装下行报文
+ * <p>
+ * 报文头由调用方写入，长度字段先任意占位，数据域直接编码在报文头之后，最后回填长度字段并追加校验码，
+ * 不再拷贝报文头、包装数据域和校验码。长度字段的含义与{@link BaseDecoder}相同，不可变，可在多个连接间共享
+ *
+ * @author bingo
+ */
+public final class FrameWriter {
+
+    private final ByteOrder byteOrder;
+
+    private final int lengthFieldOffset;
+
+    private final int lengthFieldLength;
+
+    private final int lengthFieldEndOffset;
+
+    private final int lengthAdjustment;
+
+    private final int checksumOffset;
+
+    private final FrameChecksum checksum;
+
+    /**
+     * @param lengthFieldLength 1、2、3、4或8，0表示报文头中没有需要回填的长度字段
+     * @param checksumOffset    校验范围的起始位置，相对报文起始，到校验码之前结束
+     */
+    public FrameWriter(ByteOrder byteOrder, int lengthFieldOffset, int lengthFieldLength, int lengthAdjustment, int checksumOffset, FrameChecksum checksum) {
+        this.byteOrder = checkNotNull(byteOrder, "byteOrder");
+        this.lengthFieldOffset = checkPositiveOrZero(lengthFieldOffset, "lengthFieldOffset");
+        if (lengthFieldLength != 0 && lengthFieldLength != 1 && lengthFieldLength != 2 && lengthFieldLength != 3 && lengthFieldLength != 4 && lengthFieldLength != 8) {
+            throw new IllegalArgumentException("unsupported lengthFieldLength: " + lengthFieldLength + " (expected: 0, 1, 2, 3, 4, or 8)");
+        }
+        this.lengthFieldLength = lengthFieldLength;
+        this.lengthFieldEndOffset = lengthFieldOffset + lengthFieldLength;
+        this.lengthAdjustment = lengthAdjustment;
+        this.checksumOffset = checkPositiveOrZero(checksumOffset, "checksumOffset");
+        this.checksum = checkNotNull(checksum, "checksum");
+    }
+
+    /**
+     * 写入报文头、数据域和校验码，数据域长度可以确定时预先扩容一次
+     *
+     * @param header 报文头，不移动其readerIndex
+     */
+    public void write(ByteBuf out, ByteBuf header, GByte gByte, Object msg, int version) {
+        int size = gByte.encodedSize(msg, version);
+        if (size != TypeAdapter.UNKNOWN_SIZE) {
+            out.ensureWritable(header.readableBytes() + size + checksum.getLength());
+        }
+
+        int frameStart = out.writerIndex();
+        out.writeBytes(header, header.readerIndex(), header.readableBytes());
+        gByte.toByteBuf(out, msg, version);
+        finish(out, frameStart);
+    }
+
+    /**
+     * 从alloc分配一次缓冲区写入完整报文，返回的缓冲区由使用方release
+     */
+    public ByteBuf encode(ByteBufAllocator alloc, ByteBuf header, GByte gByte, Object msg, int version) {
+        int size = gByte.encodedSize(msg, version);
+        ByteBuf out = size != TypeAdapter.UNKNOWN_SIZE ? alloc.ioBuffer(header.readableBytes() + size + checksum.getLength()) : alloc.ioBuffer();
+        try {
+            write(out, header, gByte, msg, version);
+            return out;
+        } catch (RuntimeException e) {
+            out.release();
+            throw e;
+        }
+    }
+
+    /**
+     * 报文头和数据域已写入out后，回填长度字段并追加校验码
+     *
+     * @param frameStart 报文头在out中的起始位置
+     */
+    public void finish(ByteBuf out, int frameStart) {
+        if (lengthFieldLength > 0) {
+            long frameLength = out.writerIndex() + checksum.getLength() - frameStart;
+            setLength(out, frameStart + lengthFieldOffset, frameLength - lengthAdjustment - lengthFieldEndOffset);
+        }
+
+        int checksumIndex = frameStart + checksumOffset;
+        checksum.write(out, checksum.compute(out, checksumIndex, out.writerIndex() - checksumIndex));
+    }
+
+    private void setLength(ByteBuf out, int index, long length) {
+        checkPositiveOrZero(length, "length");
+        if (lengthFieldLength < Long.BYTES && length >= 1L << (lengthFieldLength * Byte.SIZE)) {
+            throw new IllegalArgumentException("length does not fit into " + lengthFieldLength + " byte(s): " + length);
+        }
+
+        boolean littleEndian = byteOrder == ByteOrder.LITTLE_ENDIAN;
+        switch (lengthFieldLength) {
+            case 1 -> out.setByte(index, (int) length);
+            case 2 -> {
+                if (littleEndian) {
+                    out.setShortLE(index, (int) length);
+                } else {
+                    out.setShort(index, (int) length);
+                }
+            }
+            case 3 -> {
+                if (littleEndian) {
+                    out.setMediumLE(index, (int) length);
+                } else {
+                    out.setMedium(index, (int) length);
+                }
+            }
+            case 4 -> {
+                if (littleEndian) {
+                    out.setIntLE(index, (int) length);
+                } else {
+                    out.setInt(index, (int) length);
+                }
+            }
+            default -> {
+                if (littleEndian) {
+                    out.setLongLE(index, length);
+                } else {
+                    out.setLong(index, length);
+                }
+            }
+        }
+    }
+}
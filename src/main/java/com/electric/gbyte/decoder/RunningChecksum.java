@@ -0,0 +1,56 @@
+package com.electric.gbyte.decoder;
+
+import io.netty.buffer.ByteBuf;
+
+import static io.netty.util.internal.ObjectUtil.checkNotNull;
+
+/**
+ * 解码过程中分段累加的校验
+ * <p>
+ * 报文头等数据域之前的部分由调用方先行{@link #update}，数据域交给{@link com.electric.gbyte.GByte#fromByteBuf(ByteBuf, Class, int, RunningChecksum)}
+ * 在解码后累加刚读取的字节范围。非线程安全，可在同一连接中{@link #reset()}后复用
+ *
+ * @author bingo
+ */
+public final class RunningChecksum {
+
+    private final FrameChecksum checksum;
+
+    private int state;
+
+    public RunningChecksum(FrameChecksum checksum) {
+        this.checksum = checkNotNull(checksum, "checksum");
+        this.state = checksum.init();
+    }
+
+    public RunningChecksum reset() {
+        state = checksum.init();
+        return this;
+    }
+
+    /**
+     * 累加[index, index + length)，不移动readerIndex
+     */
+    public RunningChecksum update(ByteBuf buf, int index, int length) {
+        state = checksum.update(state, buf, index, length);
+        return this;
+    }
+
+    public FrameChecksum getChecksum() {
+        return checksum;
+    }
+
+    /**
+     * 当前的校验码
+     */
+    public int getValue() {
+        return checksum.value(state);
+    }
+
+    /**
+     * 与报文中index处的校验码比较
+     */
+    public boolean matches(ByteBuf buf, int index) {
+        return getValue() == checksum.get(buf, index);
+    }
+}
@@ -362,7 +362,7 @@ public class $GByte$Types {
         return new GenericArrayTypeImpl(componentType);
     }
 
-    private static ParameterizedType newParameterizedTypeWithOwner(Type ownerType, Type rawType, Type... typeArguments) {
+    public static ParameterizedType newParameterizedTypeWithOwner(Type ownerType, Type rawType, Type... typeArguments) {
         return new ParameterizedTypeImpl(ownerType, rawType, typeArguments);
     }
 
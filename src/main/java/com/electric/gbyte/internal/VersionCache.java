@@ -0,0 +1,47 @@
+package com.electric.gbyte.internal;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 按版本号缓存的值，版本号不超过{@link #MAX_INDEXED_VERSION}时即数组下标，查找时不分配对象
+ * <p>
+ * 数组在写入时按需扩容并整体替换，读取不加锁；负数和更大的版本号存入map
+ *
+ * @author bingo
+ */
+public final class VersionCache<V> {
+
+    public static final int MAX_INDEXED_VERSION = 1023;
+
+    private static final Object[] EMPTY = new Object[0];
+
+    private volatile Object[] values = EMPTY;
+
+    private final Map<Integer, V> others = new ConcurrentHashMap<>();
+
+    /**
+     * @return 未缓存时返回null
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int version) {
+        Object[] values = this.values;
+        if (version >= 0 && version < values.length) {
+            return (V) values[version];
+        }
+        return version >= 0 && version <= MAX_INDEXED_VERSION ? null : others.get(version);
+    }
+
+    public synchronized void put(int version, V value) {
+        if (version < 0 || version > MAX_INDEXED_VERSION) {
+            others.put(version, value);
+            return;
+        }
+
+        Object[] values = this.values;
+        Object[] copy = new Object[Math.max(values.length, Math.min(Math.max(version + 1, values.length * 2), MAX_INDEXED_VERSION + 1))];
+        System.arraycopy(values, 0, copy, 0, values.length);
+        copy[version] = value;
+        this.values = copy;
+    }
+}
@@ -64,9 +64,27 @@ public final class ArrayTypeAdapter<E> extends TypeAdapter<Object> {
     @Override
     @SuppressWarnings("unchecked")
     public void write(ByteBuf out, Object array, GByteFieldInfo gByteFieldInfo) {
+        if (array == null) {
+            return;
+        }
+
         for (int i = 0, l = Array.getLength(array); i < l; i++) {
             E value = (E) Array.get(array, i);
             componentTypeAdapter.write(out, value, gByteFieldInfo);
         }
     }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public int size(Object array, GByteFieldInfo gByteFieldInfo) {
+        if (array == null) {
+            return 0;
+        }
+
+        int size = 0;
+        for (int i = 0, l = Array.getLength(array); i < l; i++) {
+            size = addSize(size, componentTypeAdapter.size((E) Array.get(array, i), gByteFieldInfo));
+        }
+        return size;
+    }
 }
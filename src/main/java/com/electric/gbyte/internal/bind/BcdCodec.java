@@ -0,0 +1,158 @@
+package com.electric.gbyte.internal.bind;
+
+import io.netty.buffer.ByteBuf;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 压缩BCD码编解码，每字节两位数字，高位在前
+ * <p>
+ * 按256项查找表逐字节转换，字符串直接写入结果数组，数字不经过字符串，写入时直接写到输出的ByteBuf
+ *
+ * @author bingo
+ */
+public final class BcdCodec {
+
+    /**
+     * long可容纳的最大字节数，18位数字
+     */
+    public static final int MAX_LONG_LENGTH = 9;
+
+    /**
+     * 字节对应的两个字符，与{@link io.netty.buffer.ByteBufUtil#hexDump}一致为小写
+     */
+    private static final byte[] CHARS = new byte[256 * 2];
+
+    /**
+     * 字符对应的半字节，非十六进制字符为-1
+     */
+    private static final byte[] NIBBLES = new byte[256];
+
+    /**
+     * 字节对应的两位数0~99，半字节大于9时为-1
+     */
+    private static final byte[] VALUES = new byte[256];
+
+    /**
+     * 两位数0~99对应的字节
+     */
+    private static final byte[] BYTES = new byte[100];
+
+    static {
+        byte[] hex = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+        for (int i = 0; i < 256; i++) {
+            CHARS[i << 1] = hex[i >>> 4];
+            CHARS[(i << 1) + 1] = hex[i & 0xf];
+
+            int high = i >>> 4;
+            int low = i & 0xf;
+            VALUES[i] = (byte) (high <= 9 && low <= 9 ? high * 10 + low : -1);
+
+            NIBBLES[i] = (byte) Character.digit((char) i, 16);
+        }
+        for (int i = 0; i < 100; i++) {
+            BYTES[i] = (byte) ((i / 10) << 4 | i % 10);
+        }
+    }
+
+    private BcdCodec() {
+
+    }
+
+    /**
+     * 读取length字节为2*length位的字符串，不移动readerIndex
+     */
+    public static String getString(ByteBuf buf, int index, int length) {
+        byte[] chars = new byte[length << 1];
+        if (buf.hasArray()) {
+            byte[] array = buf.array();
+            int offset = buf.arrayOffset() + index;
+            for (int i = 0; i < length; i++) {
+                int b = array[offset + i] & 0xff;
+                chars[i << 1] = CHARS[b << 1];
+                chars[(i << 1) + 1] = CHARS[(b << 1) + 1];
+            }
+        } else {
+            for (int i = 0; i < length; i++) {
+                int b = buf.getUnsignedByte(index + i);
+                chars[i << 1] = CHARS[b << 1];
+                chars[(i << 1) + 1] = CHARS[(b << 1) + 1];
+            }
+        }
+        return new String(chars, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * 每两个字符写为一个字节
+     *
+     * @return 写入的字节数
+     * @throws IllegalArgumentException 长度为奇数或含非十六进制字符
+     */
+    public static int writeString(ByteBuf out, CharSequence value) {
+        int length = value.length();
+        if ((length & 1) != 0) {
+            throw new IllegalArgumentException("BCD字符串长度必须为偶数: " + value);
+        }
+
+        int bytes = length >>> 1;
+        out.ensureWritable(bytes);
+        int writerIndex = out.writerIndex();
+        int i = 0;
+        // 每8字节拼成一个long写入，减少边界检查
+        for (; i + 16 <= length; i += 16) {
+            long word = 0;
+            for (int j = i; j < i + 16; j += 2) {
+                word = word << 8 | nibble(value, j) << 4 | nibble(value, j + 1);
+            }
+            out.setLong(writerIndex, word);
+            writerIndex += Long.BYTES;
+        }
+        for (; i < length; i += 2) {
+            out.setByte(writerIndex++, nibble(value, i) << 4 | nibble(value, i + 1));
+        }
+        out.writerIndex(writerIndex);
+        return bytes;
+    }
+
+    /**
+     * 读取length字节为数字，不移动readerIndex，半字节大于9的字节（如填充的0xFF）按00处理
+     *
+     * @param length 不超过{@link #MAX_LONG_LENGTH}
+     */
+    public static long getLong(ByteBuf buf, int index, int length) {
+        long value = 0;
+        for (int i = 0; i < length; i++) {
+            int v = VALUES[buf.getUnsignedByte(index + i)];
+            value = value * 100 + (v > 0 ? v : 0);
+        }
+        return value;
+    }
+
+    /**
+     * 写入length字节，超出的高位数字丢弃
+     *
+     * @throws IllegalArgumentException value为负数
+     */
+    public static void writeLong(ByteBuf out, long value, int length) {
+        if (value < 0) {
+            throw new IllegalArgumentException("BCD不支持负数: " + value);
+        }
+
+        out.ensureWritable(length);
+        int writerIndex = out.writerIndex();
+        for (int i = writerIndex + length - 1; i >= writerIndex; i--) {
+            out.setByte(i, BYTES[(int) (value % 100)]);
+            value /= 100;
+        }
+        out.writerIndex(writerIndex + length);
+    }
+
+    private static int nibble(CharSequence value, int index) {
+        char c = value.charAt(index);
+        int nibble = c < 256 ? NIBBLES[c] : -1;
+        if (nibble < 0) {
+            throw new IllegalArgumentException("BCD字符串含非法字符'" + c + "': " + value);
+        }
+        return nibble;
+    }
+}
@@ -79,5 +79,18 @@ public final class CollectionTypeAdapterFactory implements TypeAdapterFactory {
                 componentTypeAdapter.write(out, element, gByteFieldInfo);
             }
         }
+
+        @Override
+        public int size(Collection<E> value, GByteFieldInfo gByteFieldInfo) {
+            if (value == null) {
+                return 0;
+            }
+
+            int size = 0;
+            for (E element : value) {
+                size = addSize(size, componentTypeAdapter.size(element, gByteFieldInfo));
+            }
+            return size;
+        }
     }
 }
\ No newline at end of file
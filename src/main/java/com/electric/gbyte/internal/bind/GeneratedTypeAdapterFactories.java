@@ -0,0 +1,58 @@
+package com.electric.gbyte.internal.bind;
+
+import com.electric.gbyte.GByte;
+import com.electric.gbyte.GeneratedTypeAdapterFactory;
+import com.electric.gbyte.TypeAdapter;
+import com.electric.gbyte.TypeAdapterFactory;
+import com.electric.gbyte.reflect.TypeToken;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.ServiceLoader;
+
+/**
+ * 编译期生成的适配器工厂，按类直接查找
+ *
+ * @author bingo
+ */
+public final class GeneratedTypeAdapterFactories implements TypeAdapterFactory {
+
+    private final Map<Class<?>, GeneratedTypeAdapterFactory> factories = new IdentityHashMap<>();
+
+    private GeneratedTypeAdapterFactories() {
+
+    }
+
+    public static GeneratedTypeAdapterFactories load(ClassLoader classLoader) {
+        GeneratedTypeAdapterFactories result = new GeneratedTypeAdapterFactories();
+        for (GeneratedTypeAdapterFactory factory : ServiceLoader.load(GeneratedTypeAdapterFactory.class, classLoader)) {
+            result.factories.putIfAbsent(factory.getType(), factory);
+        }
+        return result;
+    }
+
+    public boolean isEmpty() {
+        return factories.isEmpty();
+    }
+
+    /**
+     * 生成的适配器是工厂的嵌套类，与反射实现读写相同的字段
+     *
+     * @return adapter是否为type生成的适配器
+     */
+    public boolean isGenerated(Class<?> type, TypeAdapter<?> adapter) {
+        GeneratedTypeAdapterFactory factory = factories.get(type);
+        return factory != null && adapter.getClass().getEnclosingClass() == factory.getClass();
+    }
+
+    @Override
+    public <T> TypeAdapter<T> create(GByte gByte, TypeToken<T> type, Integer version) {
+        GeneratedTypeAdapterFactory factory = factories.get(type.getRawType());
+        return factory == null ? null : factory.create(gByte, type, version);
+    }
+
+    @Override
+    public String toString() {
+        return "GeneratedTypeAdapterFactories" + factories.keySet();
+    }
+}
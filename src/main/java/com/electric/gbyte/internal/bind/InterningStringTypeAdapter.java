@@ -0,0 +1,119 @@
+package com.electric.gbyte.internal.bind;
+
+import com.electric.gbyte.TypeAdapter;
+import com.electric.gbyte.annotations.GByteFieldInfo;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.netty.util.internal.MathUtil;
+
+/**
+ * 按原始字节缓存定长字符串，桩编码、枪号等反复出现的值解码为同一个String，命中时不分配对象
+ * <p>
+ * 缓存按原始字节的hash直接映射，冲突时覆盖旧值，容量固定；超过{@link #MAX_LENGTH}和不定长的字段不缓存。
+ * 缓存项创建后不再修改，多线程并发读写时最多重复解码
+ *
+ * @author bingo
+ */
+public final class InterningStringTypeAdapter extends TypeAdapter<String> {
+
+    /**
+     * 缓存的最大字段长度
+     */
+    public static final int MAX_LENGTH = 32;
+
+    private final Entry[] entries;
+
+    private final int mask;
+
+    /**
+     * @param capacity 缓存的字符串个数，向上取整为2的幂
+     */
+    public InterningStringTypeAdapter(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity: " + capacity);
+        }
+        this.entries = new Entry[MathUtil.safeFindNextPositivePowerOfTwo(capacity)];
+        this.mask = entries.length - 1;
+    }
+
+    @Override
+    public String read(final ByteBuf in, final GByteFieldInfo gByteFieldInfo) {
+        int length = gByteFieldInfo.getLength();
+        if (length == 0 || length > MAX_LENGTH) {
+            return TypeAdapters.STRING.read(in, gByteFieldInfo);
+        }
+        if (!in.isReadable(length)) {
+            return null;
+        }
+
+        int index = in.readerIndex();
+        in.skipBytes(length);
+
+        int slot = hash(in, index, length, gByteFieldInfo) & mask;
+        Entry entry = entries[slot];
+        if (entry != null && entry.matches(in, index, length, gByteFieldInfo)) {
+            return entry.value;
+        }
+
+        String value = TypeAdapters.decodeString(in, index, length, gByteFieldInfo);
+        if (value != null) {
+            entries[slot] = new Entry(in, index, length, gByteFieldInfo, value);
+        }
+        return value;
+    }
+
+    /**
+     * 按8字节读取计算hash，避免逐字节的边界检查
+     */
+    private static int hash(ByteBuf in, int index, int length, GByteFieldInfo gByteFieldInfo) {
+        long hash = gByteFieldInfo.getStringType() * 31L + gByteFieldInfo.getStringFill();
+        int end = index + length;
+        for (; index + Long.BYTES <= end; index += Long.BYTES) {
+            hash = hash * 31 + in.getLong(index);
+        }
+        for (; index < end; index++) {
+            hash = hash * 31 + in.getByte(index);
+        }
+        int h = (int) (hash ^ hash >>> 32);
+        return h ^ h >>> 16;
+    }
+
+    @Override
+    public void write(ByteBuf out, final String value, final GByteFieldInfo gByteFieldInfo) {
+        TypeAdapters.STRING.write(out, value, gByteFieldInfo);
+    }
+
+    @Override
+    public int fixedSize(final GByteFieldInfo gByteFieldInfo) {
+        return TypeAdapters.STRING.fixedSize(gByteFieldInfo);
+    }
+
+    @Override
+    public int size(final String value, final GByteFieldInfo gByteFieldInfo) {
+        return TypeAdapters.STRING.size(value, gByteFieldInfo);
+    }
+
+    private static final class Entry {
+
+        final ByteBuf bytes;
+
+        final byte stringType;
+
+        final int stringFill;
+
+        final String value;
+
+        Entry(ByteBuf in, int index, int length, GByteFieldInfo gByteFieldInfo, String value) {
+            this.bytes = Unpooled.wrappedBuffer(ByteBufUtil.getBytes(in, index, length));
+            this.stringType = gByteFieldInfo.getStringType();
+            this.stringFill = gByteFieldInfo.getStringFill();
+            this.value = value;
+        }
+
+        boolean matches(ByteBuf in, int index, int length, GByteFieldInfo gByteFieldInfo) {
+            return bytes.readableBytes() == length && stringType == gByteFieldInfo.getStringType() && stringFill == gByteFieldInfo.getStringFill()
+                    && ByteBufUtil.equals(bytes, 0, in, index, length);
+        }
+    }
+}
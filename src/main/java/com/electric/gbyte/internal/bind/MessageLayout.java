@@ -0,0 +1,187 @@
+package com.electric.gbyte.internal.bind;
+
+import com.electric.gbyte.Fixed;
+import com.electric.gbyte.TypeAdapter;
+import io.netty.buffer.ByteBuf;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 协议类在某个版本下的字段布局
+ * <p>
+ * 按字段声明顺序记录每个字段相对报文起始的偏移，定长字段之后的偏移在创建时确定，
+ * 出现不定长字段后的偏移为{@link TypeAdapter#UNKNOWN_SIZE}，需按实际数据确定。不可变，可跨线程共享
+ *
+ * @author bingo
+ */
+public final class MessageLayout<T> {
+
+    private final Class<T> type;
+
+    private final ReflectiveTypeAdapterFactory.BoundField[] fields;
+
+    private final int[] offsets;
+
+    private final int fixedSize;
+
+    private final Map<String, Integer> indexes = new HashMap<>();
+
+    MessageLayout(Class<T> type, List<ReflectiveTypeAdapterFactory.BoundField> boundFields) {
+        this.type = type;
+        this.fields = boundFields.toArray(new ReflectiveTypeAdapterFactory.BoundField[0]);
+        this.offsets = new int[fields.length];
+
+        int offset = 0;
+        for (int i = 0; i < fields.length; i++) {
+            offsets[i] = offset;
+            offset = TypeAdapter.addSize(offset, fields[i].fixedSize());
+            indexes.put(fields[i].name, i);
+        }
+        this.fixedSize = offset;
+    }
+
+    public Class<T> getType() {
+        return type;
+    }
+
+    public int getFieldCount() {
+        return fields.length;
+    }
+
+    public String getFieldName(int index) {
+        return fields[index].name;
+    }
+
+    /**
+     * @return 当前版本没有该字段时返回-1
+     */
+    public int indexOf(String name) {
+        Integer index = indexes.get(name);
+        return index != null ? index : -1;
+    }
+
+    /**
+     * 字段相对报文起始的偏移
+     *
+     * @return 前面有不定长字段时返回{@link TypeAdapter#UNKNOWN_SIZE}
+     */
+    public int getOffset(int index) {
+        return offsets[index];
+    }
+
+    /**
+     * @return 有不定长字段时返回{@link TypeAdapter#UNKNOWN_SIZE}
+     */
+    public int getFixedSize() {
+        return fixedSize;
+    }
+
+    /**
+     * 字段编码后的长度
+     *
+     * @return 不定长时返回{@link TypeAdapter#UNKNOWN_SIZE}
+     */
+    public int getFieldSize(int index) {
+        return fields[index].fixedSize();
+    }
+
+    /**
+     * 从in的readerIndex读取一个字段，与完整解码时该字段的结果一致
+     */
+    public Object read(int index, ByteBuf in) {
+        return fields[index].readValue(in);
+    }
+
+    /**
+     * 字段是否可以按int直接读取，不经过装箱
+     */
+    public boolean isIntField(int index) {
+        return fields[index].typeAdapter instanceof NumberCodecs.IntCodec;
+    }
+
+    public boolean isLongField(int index) {
+        return fields[index].typeAdapter instanceof NumberCodecs.LongCodec;
+    }
+
+    /**
+     * 按绝对位置读取int字段，位字段和枚举位字段按位截取的原始值，不移动readerIndex
+     *
+     * @param offset 字段在buf中的位置
+     */
+    public int getInt(int index, ByteBuf buf, int offset) {
+        if (fields[index] instanceof ReflectiveTypeAdapterFactory.BitBoundField) {
+            return (int) ((ReflectiveTypeAdapterFactory.BitBoundField) fields[index]).getBits(buf, offset);
+        }
+        TypeAdapter<?> typeAdapter = fields[index].typeAdapter;
+        if (typeAdapter instanceof NumberCodecs.IntCodec) {
+            return ((NumberCodecs.IntCodec) typeAdapter).getInt(buf, offset);
+        }
+        if (typeAdapter == TypeAdapters.BYTE) {
+            return buf.getByte(offset);
+        }
+        if (typeAdapter == TypeAdapters.BOOLEAN) {
+            return buf.getBoolean(offset) ? 1 : 0;
+        }
+        return ((Number) read(index, buf.duplicate().readerIndex(offset))).intValue();
+    }
+
+    /**
+     * 按绝对位置读取boolean字段，其它字段非0为true，不移动readerIndex
+     *
+     * @param offset 字段在buf中的位置
+     */
+    public boolean getBoolean(int index, ByteBuf buf, int offset) {
+        if (fields[index].typeAdapter == TypeAdapters.BOOLEAN) {
+            return buf.getBoolean(offset);
+        }
+        return getInt(index, buf, offset) != 0;
+    }
+
+    /**
+     * 按绝对位置读取按倍率缩放的BigDecimal字段，不移动readerIndex
+     *
+     * @param offset 字段在buf中的位置
+     */
+    public BigDecimal getBigDecimal(int index, ByteBuf buf, int offset) {
+        TypeAdapter<?> typeAdapter = fields[index].typeAdapter;
+        if (typeAdapter instanceof NumberCodecs.BigDecimalCodec) {
+            return ((NumberCodecs.BigDecimalCodec) typeAdapter).getBigDecimal(buf, offset);
+        }
+        return (BigDecimal) read(index, buf.duplicate().readerIndex(offset));
+    }
+
+    /**
+     * 按绝对位置读取定点小数字段，不移动readerIndex
+     *
+     * @param offset 字段在buf中的位置
+     */
+    public Fixed getFixed(int index, ByteBuf buf, int offset) {
+        TypeAdapter<?> typeAdapter = fields[index].typeAdapter;
+        if (typeAdapter instanceof NumberCodecs.FixedCodec) {
+            return ((NumberCodecs.FixedCodec) typeAdapter).getFixed(buf, offset);
+        }
+        return (Fixed) read(index, buf.duplicate().readerIndex(offset));
+    }
+
+    /**
+     * 按绝对位置读取long字段，不移动readerIndex
+     *
+     * @param offset 字段在buf中的位置
+     */
+    public long getLong(int index, ByteBuf buf, int offset) {
+        if (fields[index] instanceof ReflectiveTypeAdapterFactory.BitBoundField) {
+            return ((ReflectiveTypeAdapterFactory.BitBoundField) fields[index]).getBits(buf, offset);
+        }
+        TypeAdapter<?> typeAdapter = fields[index].typeAdapter;
+        if (typeAdapter instanceof NumberCodecs.LongCodec) {
+            return ((NumberCodecs.LongCodec) typeAdapter).getLong(buf, offset);
+        }
+        if (typeAdapter instanceof NumberCodecs.IntCodec || typeAdapter == TypeAdapters.BYTE || typeAdapter == TypeAdapters.BOOLEAN) {
+            return getInt(index, buf, offset);
+        }
+        return ((Number) read(index, buf.duplicate().readerIndex(offset))).longValue();
+    }
+}
@@ -0,0 +1,547 @@
+package com.electric.gbyte.internal.bind;
+
+import com.electric.gbyte.Constant;
+import com.electric.gbyte.Fixed;
+import com.electric.gbyte.TypeAdapter;
+import com.electric.gbyte.annotations.GByteFieldInfo;
+import io.netty.buffer.ByteBuf;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteOrder;
+
+/**
+ * 按字段元信息预先确定读写方式的数字编解码
+ * <p>
+ * {@link TypeAdapters#INTEGER}等每次读写都要判断长度、字节序和偏移类型，
+ * 而字段的{@link GByteFieldInfo}在创建适配器后就不再变化，这里在创建时一次性选定，
+ * 例如"2字节小端序再除以100"，每次读写不再有元信息分支。
+ * 数字字段声明{@link Constant#STRING_BCD}时按压缩BCD码读写
+ *
+ * @author bingo
+ */
+public final class NumberCodecs {
+
+    private NumberCodecs() {
+
+    }
+
+    /**
+     * 按长度和字节序读写无符号整数，8字节为有符号long
+     * <p>
+     * 所有字段共用读写方法，按final的kind分支而不是子类多态，避免调用点变为megamorphic
+     */
+    static final class Raw {
+
+        private static final int KIND_U8 = 0;
+
+        private static final int KIND_U16_LE = 1;
+
+        private static final int KIND_U16_BE = 2;
+
+        private static final int KIND_U24_LE = 3;
+
+        private static final int KIND_U24_BE = 4;
+
+        private static final int KIND_U32_LE = 5;
+
+        private static final int KIND_U32_BE = 6;
+
+        private static final int KIND_I64_LE = 7;
+
+        private static final int KIND_I64_BE = 8;
+
+        /**
+         * 压缩BCD码的无符号整数
+         */
+        private static final int KIND_BCD = 9;
+
+        static final Raw U8 = new Raw(KIND_U8, 1);
+
+        static final Raw U16_LE = new Raw(KIND_U16_LE, 2);
+
+        static final Raw U16_BE = new Raw(KIND_U16_BE, 2);
+
+        static final Raw U24_LE = new Raw(KIND_U24_LE, 3);
+
+        static final Raw U24_BE = new Raw(KIND_U24_BE, 3);
+
+        static final Raw U32_LE = new Raw(KIND_U32_LE, 4);
+
+        static final Raw U32_BE = new Raw(KIND_U32_BE, 4);
+
+        static final Raw I64_LE = new Raw(KIND_I64_LE, 8);
+
+        static final Raw I64_BE = new Raw(KIND_I64_BE, 8);
+
+        /**
+         * 下标为字节数
+         */
+        private static final Raw[] BCD = new Raw[BcdCodec.MAX_LONG_LENGTH + 1];
+
+        static {
+            for (int length = 1; length < BCD.length; length++) {
+                BCD[length] = new Raw(KIND_BCD, length);
+            }
+        }
+
+        private final int kind;
+
+        final int length;
+
+        private Raw(int kind, int length) {
+            this.kind = kind;
+            this.length = length;
+        }
+
+        long read(ByteBuf in) {
+            return switch (kind) {
+                case KIND_U8 -> in.readUnsignedByte();
+                case KIND_U16_LE -> in.readUnsignedShortLE();
+                case KIND_U16_BE -> in.readUnsignedShort();
+                case KIND_U24_LE -> in.readUnsignedMediumLE();
+                case KIND_U24_BE -> in.readUnsignedMedium();
+                case KIND_U32_LE -> in.readUnsignedIntLE();
+                case KIND_U32_BE -> in.readUnsignedInt();
+                case KIND_I64_LE -> in.readLongLE();
+                case KIND_I64_BE -> in.readLong();
+                default -> {
+                    long value = BcdCodec.getLong(in, in.readerIndex(), length);
+                    in.skipBytes(length);
+                    yield value;
+                }
+            };
+        }
+
+        long get(ByteBuf buf, int index) {
+            return switch (kind) {
+                case KIND_U8 -> buf.getUnsignedByte(index);
+                case KIND_U16_LE -> buf.getUnsignedShortLE(index);
+                case KIND_U16_BE -> buf.getUnsignedShort(index);
+                case KIND_U24_LE -> buf.getUnsignedMediumLE(index);
+                case KIND_U24_BE -> buf.getUnsignedMedium(index);
+                case KIND_U32_LE -> buf.getUnsignedIntLE(index);
+                case KIND_U32_BE -> buf.getUnsignedInt(index);
+                case KIND_I64_LE -> buf.getLongLE(index);
+                case KIND_I64_BE -> buf.getLong(index);
+                default -> BcdCodec.getLong(buf, index, length);
+            };
+        }
+
+        void write(ByteBuf out, long value) {
+            switch (kind) {
+                case KIND_U8 -> out.writeByte((int) value);
+                case KIND_U16_LE -> out.writeShortLE((int) value);
+                case KIND_U16_BE -> out.writeShort((int) value);
+                case KIND_U24_LE -> out.writeMediumLE((int) value);
+                case KIND_U24_BE -> out.writeMedium((int) value);
+                case KIND_U32_LE -> out.writeIntLE((int) value);
+                case KIND_U32_BE -> out.writeInt((int) value);
+                case KIND_I64_LE -> out.writeLongLE(value);
+                case KIND_I64_BE -> out.writeLong(value);
+                default -> BcdCodec.writeLong(out, value, length);
+            }
+        }
+
+        /**
+         * @return 不支持的长度返回null
+         */
+        static Raw of(int length, ByteOrder byteOrder) {
+            boolean littleEndian = ByteOrder.LITTLE_ENDIAN == byteOrder;
+            return switch (length) {
+                case 1 -> U8;
+                case 2 -> littleEndian ? U16_LE : U16_BE;
+                case 3 -> littleEndian ? U24_LE : U24_BE;
+                case 4 -> littleEndian ? U32_LE : U32_BE;
+                case 8 -> littleEndian ? I64_LE : I64_BE;
+                default -> null;
+            };
+        }
+
+        /**
+         * @return 不在1~{@link BcdCodec#MAX_LONG_LENGTH}字节时返回null
+         */
+        static Raw bcd(int length) {
+            return length > 0 && length < BCD.length ? BCD[length] : null;
+        }
+
+        static Raw of(GByteFieldInfo gByteFieldInfo) {
+            return gByteFieldInfo.getStringType() == Constant.STRING_BCD ? bcd(gByteFieldInfo.getLength()) : of(gByteFieldInfo.getLength(), gByteFieldInfo.getByteOrder());
+        }
+    }
+
+    static IntCodec intCodec(GByteFieldInfo gByteFieldInfo) {
+        return intCodec(Raw.of(gByteFieldInfo), gByteFieldInfo.getOffsetType(), gByteFieldInfo.getOffsetNum());
+    }
+
+    /**
+     * @return 长度不在1~4字节时返回null
+     */
+    static IntCodec intCodec(int length, ByteOrder byteOrder, byte offsetType, int offsetNum) {
+        return intCodec(Raw.of(length, byteOrder), offsetType, offsetNum);
+    }
+
+    private static IntCodec intCodec(Raw raw, byte offsetType, int offsetNum) {
+        if (raw == null || raw.length > 4) {
+            return null;
+        }
+        return new IntCodec(raw, offsetType, offsetNum);
+    }
+
+    /**
+     * @return 二进制不是8字节，或BCD超过{@link BcdCodec#MAX_LONG_LENGTH}字节时返回null
+     */
+    static LongCodec longCodec(GByteFieldInfo gByteFieldInfo) {
+        if (gByteFieldInfo.getStringType() != Constant.STRING_BCD && gByteFieldInfo.getLength() != 8) {
+            return null;
+        }
+        return longCodec(Raw.of(gByteFieldInfo), gByteFieldInfo.getOffsetType(), gByteFieldInfo.getOffsetNum());
+    }
+
+    /**
+     * @return 长度不是1~4或8字节时返回null
+     */
+    static LongCodec longCodec(int length, ByteOrder byteOrder, byte offsetType, int offsetNum) {
+        return longCodec(Raw.of(length, byteOrder), offsetType, offsetNum);
+    }
+
+    private static LongCodec longCodec(Raw raw, byte offsetType, int offsetNum) {
+        if (raw == null) {
+            return null;
+        }
+        return new LongCodec(raw, offsetType, offsetNum);
+    }
+
+    static BigDecimalCodec bigDecimalCodec(GByteFieldInfo gByteFieldInfo) {
+        Raw raw = Raw.of(gByteFieldInfo);
+        if (raw == null || raw.length > 4) {
+            return null;
+        }
+        return new BigDecimalCodec(raw, gByteFieldInfo.getOffsetType() == Constant.NUMBER_OFFSET_DIVIDE, gByteFieldInfo.getOffsetNum());
+    }
+
+    static FixedCodec fixedCodec(GByteFieldInfo gByteFieldInfo) {
+        Raw raw = Raw.of(gByteFieldInfo);
+        if (raw == null) {
+            return null;
+        }
+        return new FixedCodec(raw, gByteFieldInfo.getOffsetType() == Constant.NUMBER_OFFSET_DIVIDE, gByteFieldInfo.getOffsetNum());
+    }
+
+    /**
+     * 除数对应的小数位数，与{@link TypeAdapters#BIG_DECIMAL}一致，不是10的整数次幂时为0
+     */
+    static int scaleOf(int offsetNum) {
+        return switch (offsetNum) {
+            case 10 -> 1;
+            case 100 -> 2;
+            case 1000 -> 3;
+            case 10000 -> 4;
+            case 100000 -> 5;
+            case 1000000 -> 6;
+            default -> 0;
+        };
+    }
+
+    /**
+     * 与{@link TypeAdapters#INTEGER}结果一致
+     */
+    public static final class IntCodec extends TypeAdapter<Integer> {
+
+        private final Raw raw;
+
+        private final byte offsetType;
+
+        private final int offsetNum;
+
+        IntCodec(Raw raw, byte offsetType, int offsetNum) {
+            this.raw = raw;
+            this.offsetType = offsetType;
+            this.offsetNum = offsetNum;
+        }
+
+        public int getLength() {
+            return raw.length;
+        }
+
+        public int readInt(ByteBuf in) {
+            return decode((int) raw.read(in));
+        }
+
+        public int getInt(ByteBuf buf, int index) {
+            return decode((int) raw.get(buf, index));
+        }
+
+        public void writeInt(ByteBuf out, int value) {
+            raw.write(out, encode(value));
+        }
+
+        private int decode(int value) {
+            return switch (offsetType) {
+                case Constant.NUMBER_OFFSET_ADD -> value + offsetNum;
+                case Constant.NUMBER_OFFSET_SUBTRACT -> value - offsetNum;
+                case Constant.NUMBER_OFFSET_MULTIPLY -> value * offsetNum;
+                case Constant.NUMBER_OFFSET_DIVIDE -> value / offsetNum;
+                default -> value;
+            };
+        }
+
+        private int encode(int value) {
+            return switch (offsetType) {
+                case Constant.NUMBER_OFFSET_ADD -> value - offsetNum;
+                case Constant.NUMBER_OFFSET_SUBTRACT -> value + offsetNum;
+                case Constant.NUMBER_OFFSET_MULTIPLY -> value / offsetNum;
+                case Constant.NUMBER_OFFSET_DIVIDE -> value * offsetNum;
+                default -> value;
+            };
+        }
+
+        @Override
+        public Integer read(ByteBuf in, GByteFieldInfo gByteFieldInfo) {
+            if (!in.isReadable(raw.length)) {
+                return null;
+            }
+            return readInt(in);
+        }
+
+        @Override
+        public void write(ByteBuf out, Integer value, GByteFieldInfo gByteFieldInfo) {
+            if (value == null) {
+                raw.write(out, 0);
+            } else {
+                writeInt(out, value);
+            }
+        }
+
+        @Override
+        public int fixedSize(GByteFieldInfo gByteFieldInfo) {
+            return raw.length;
+        }
+    }
+
+    /**
+     * 与{@link TypeAdapters#LONG}结果一致
+     */
+    public static final class LongCodec extends TypeAdapter<Number> {
+
+        private final Raw raw;
+
+        private final byte offsetType;
+
+        private final long offsetNum;
+
+        LongCodec(Raw raw, byte offsetType, int offsetNum) {
+            this.raw = raw;
+            this.offsetType = offsetType;
+            this.offsetNum = offsetNum;
+        }
+
+        public int getLength() {
+            return raw.length;
+        }
+
+        public long readLong(ByteBuf in) {
+            return decode(raw.read(in));
+        }
+
+        public long getLong(ByteBuf buf, int index) {
+            return decode(raw.get(buf, index));
+        }
+
+        public void writeLong(ByteBuf out, long value) {
+            raw.write(out, encode(value));
+        }
+
+        private long decode(long value) {
+            return switch (offsetType) {
+                case Constant.NUMBER_OFFSET_ADD -> value + offsetNum;
+                case Constant.NUMBER_OFFSET_SUBTRACT -> value - offsetNum;
+                case Constant.NUMBER_OFFSET_MULTIPLY -> value * offsetNum;
+                case Constant.NUMBER_OFFSET_DIVIDE -> value / offsetNum;
+                default -> value;
+            };
+        }
+
+        private long encode(long value) {
+            return switch (offsetType) {
+                case Constant.NUMBER_OFFSET_ADD -> value - offsetNum;
+                case Constant.NUMBER_OFFSET_SUBTRACT -> value + offsetNum;
+                case Constant.NUMBER_OFFSET_MULTIPLY -> value / offsetNum;
+                case Constant.NUMBER_OFFSET_DIVIDE -> value * offsetNum;
+                default -> value;
+            };
+        }
+
+        @Override
+        public Number read(ByteBuf in, GByteFieldInfo gByteFieldInfo) {
+            if (!in.isReadable(raw.length)) {
+                return null;
+            }
+            return readLong(in);
+        }
+
+        @Override
+        public void write(ByteBuf out, Number value, GByteFieldInfo gByteFieldInfo) {
+            if (value == null) {
+                raw.write(out, 0);
+            } else {
+                writeLong(out, value.longValue());
+            }
+        }
+
+        @Override
+        public int fixedSize(GByteFieldInfo gByteFieldInfo) {
+            return raw.length;
+        }
+    }
+
+    /**
+     * 与{@link TypeAdapters#BIG_DECIMAL}结果一致
+     * <p>
+     * 除以10的整数次幂时直接以原始值为unscaledValue构造，不再做BigDecimal除法
+     */
+    public static final class BigDecimalCodec extends TypeAdapter<BigDecimal> {
+
+        private final Raw raw;
+
+        private final boolean divide;
+
+        private final BigDecimal offsetNum;
+
+        private final int scale;
+
+        private final boolean powerOfTen;
+
+        BigDecimalCodec(Raw raw, boolean divide, int offsetNum) {
+            this.raw = raw;
+            this.divide = divide;
+            this.offsetNum = new BigDecimal(offsetNum);
+            this.scale = scaleOf(offsetNum);
+            this.powerOfTen = scale > 0 || offsetNum == 1;
+        }
+
+        public int getLength() {
+            return raw.length;
+        }
+
+        public BigDecimal readBigDecimal(ByteBuf in) {
+            return toBigDecimal(raw.read(in));
+        }
+
+        public BigDecimal getBigDecimal(ByteBuf buf, int index) {
+            return toBigDecimal(raw.get(buf, index));
+        }
+
+        private BigDecimal toBigDecimal(long value) {
+            if (!divide) {
+                return BigDecimal.valueOf(value);
+            }
+            if (powerOfTen) {
+                return BigDecimal.valueOf(value, scale);
+            }
+            return new BigDecimal(value).divide(offsetNum, scale, RoundingMode.HALF_UP);
+        }
+
+        @Override
+        public BigDecimal read(ByteBuf in, GByteFieldInfo gByteFieldInfo) {
+            if (!in.isReadable(raw.length)) {
+                return null;
+            }
+            return readBigDecimal(in);
+        }
+
+        @Override
+        public void write(ByteBuf out, BigDecimal value, GByteFieldInfo gByteFieldInfo) {
+            int val = 0;
+            if (value != null && divide) {
+                val = value.multiply(offsetNum).intValue();
+            }
+            raw.write(out, val);
+        }
+
+        @Override
+        public int fixedSize(GByteFieldInfo gByteFieldInfo) {
+            return raw.length;
+        }
+    }
+
+    /**
+     * 与{@link TypeAdapters#FIXED}结果一致
+     * <p>
+     * 除以10的整数次幂时原始值即为unscaled，读写都不经过BigDecimal
+     */
+    public static final class FixedCodec extends TypeAdapter<Fixed> {
+
+        private final Raw raw;
+
+        private final int scale;
+
+        /**
+         * 不是10的整数次幂时按此除数四舍五入为整数，否则为0
+         */
+        private final long divisor;
+
+        FixedCodec(Raw raw, boolean divide, int offsetNum) {
+            this.raw = raw;
+            this.scale = divide ? scaleOf(offsetNum) : 0;
+            this.divisor = divide && scale == 0 && offsetNum > 1 ? offsetNum : 0;
+        }
+
+        public int getLength() {
+            return raw.length;
+        }
+
+        public int getScale() {
+            return scale;
+        }
+
+        public Fixed readFixed(ByteBuf in) {
+            return toFixed(raw.read(in));
+        }
+
+        public Fixed getFixed(ByteBuf buf, int index) {
+            return toFixed(raw.get(buf, index));
+        }
+
+        public void writeFixed(ByteBuf out, Fixed value) {
+            raw.write(out, divisor != 0 ? value.unscaled(0) * divisor : value.unscaled(scale));
+        }
+
+        private Fixed toFixed(long value) {
+            return Fixed.of(divisor != 0 ? divideHalfUp(value, divisor) : value, scale);
+        }
+
+        /**
+         * 与{@link Fixed#unscaled(int)}一致按绝对值四舍五入，8字节的有符号值为负数时远离0
+         */
+        private static long divideHalfUp(long value, long divisor) {
+            long quotient = value / divisor;
+            if (Math.abs(value % divisor) * 2 >= divisor) {
+                quotient += Long.signum(value);
+            }
+            return quotient;
+        }
+
+        @Override
+        public Fixed read(ByteBuf in, GByteFieldInfo gByteFieldInfo) {
+            if (!in.isReadable(raw.length)) {
+                return null;
+            }
+            return readFixed(in);
+        }
+
+        @Override
+        public void write(ByteBuf out, Fixed value, GByteFieldInfo gByteFieldInfo) {
+            if (value == null) {
+                raw.write(out, 0);
+            } else {
+                writeFixed(out, value);
+            }
+        }
+
+        @Override
+        public int fixedSize(GByteFieldInfo gByteFieldInfo) {
+            return raw.length;
+        }
+    }
+}
@@ -0,0 +1,308 @@
+package com.electric.gbyte.internal.bind;
+
+import com.electric.gbyte.GByte;
+import com.electric.gbyte.TypeAdapter;
+import com.electric.gbyte.TypeAdapterFactory;
+import com.electric.gbyte.annotations.GByteFieldInfo;
+import com.electric.gbyte.reflect.TypeToken;
+import io.netty.buffer.ByteBuf;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 基本类型数组编解码，元素直接读写到数组中，不经过装箱
+ * <p>
+ * length为元素个数，元素按字节序和偏移读写，byte[]整段拷贝。
+ * 未设置elementLength时与原先逐个元素读写一致，每个元素也是length字节；设置后每个元素为elementLength字节
+ *
+ * @author bingo
+ */
+@Slf4j
+public final class PrimitiveArrayTypeAdapters {
+
+    private PrimitiveArrayTypeAdapters() {
+
+    }
+
+    public static final TypeAdapter<byte[]> BYTES = new TypeAdapter<>() {
+        @Override
+        public byte[] read(ByteBuf in, GByteFieldInfo gByteFieldInfo) {
+            int length = gByteFieldInfo.getLength();
+            if (!in.isReadable(length)) {
+                return null;
+            }
+
+            byte[] array = new byte[length];
+            in.readBytes(array);
+            return array;
+        }
+
+        @Override
+        public void write(ByteBuf out, byte[] value, GByteFieldInfo gByteFieldInfo) {
+            if (value == null) {
+                out.writeZero(gByteFieldInfo.getLength());
+            } else {
+                out.writeBytes(value);
+            }
+        }
+
+        @Override
+        public int fixedSize(GByteFieldInfo gByteFieldInfo) {
+            return gByteFieldInfo.getLength();
+        }
+
+        @Override
+        public int size(byte[] value, GByteFieldInfo gByteFieldInfo) {
+            return value == null ? gByteFieldInfo.getLength() : value.length;
+        }
+    };
+
+    public static final TypeAdapter<short[]> SHORTS = new ShortArrayAdapter(null);
+
+    public static final TypeAdapter<int[]> INTS = new IntArrayAdapter(null);
+
+    public static final TypeAdapter<long[]> LONGS = new LongArrayAdapter(null);
+
+    public static final TypeAdapterFactory FACTORY = new TypeAdapterFactory() {
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> TypeAdapter<T> create(GByte gByte, TypeToken<T> typeToken, Integer version) {
+            Class<? super T> rawType = typeToken.getRawType();
+            TypeAdapter<?> typeAdapter = null;
+            if (rawType == byte[].class) {
+                typeAdapter = BYTES;
+            } else if (rawType == short[].class) {
+                typeAdapter = SHORTS;
+            } else if (rawType == int[].class) {
+                typeAdapter = INTS;
+            } else if (rawType == long[].class) {
+                typeAdapter = LONGS;
+            }
+            return (TypeAdapter<T>) typeAdapter;
+        }
+    };
+
+    /**
+     * 按字段元信息预先确定元素的读写方式
+     *
+     * @return 不是基本类型数组适配器或元素长度不支持时返回null
+     */
+    static TypeAdapter<?> specialize(TypeAdapter<?> typeAdapter, GByteFieldInfo gByteFieldInfo) {
+        if (typeAdapter == SHORTS) {
+            NumberCodecs.IntCodec codec = intCodec(gByteFieldInfo);
+            return codec != null ? new ShortArrayAdapter(codec) : null;
+        } else if (typeAdapter == INTS) {
+            NumberCodecs.IntCodec codec = intCodec(gByteFieldInfo);
+            return codec != null ? new IntArrayAdapter(codec) : null;
+        } else if (typeAdapter == LONGS) {
+            NumberCodecs.LongCodec codec = longCodec(gByteFieldInfo);
+            return codec != null ? new LongArrayAdapter(codec) : null;
+        }
+        return null;
+    }
+
+    private static int elementLength(GByteFieldInfo gByteFieldInfo) {
+        return gByteFieldInfo.getElementLength() > 0 ? gByteFieldInfo.getElementLength() : gByteFieldInfo.getLength();
+    }
+
+    private static NumberCodecs.IntCodec intCodec(GByteFieldInfo gByteFieldInfo) {
+        return NumberCodecs.intCodec(elementLength(gByteFieldInfo), gByteFieldInfo.getByteOrder(),
+                gByteFieldInfo.getOffsetType(), gByteFieldInfo.getOffsetNum());
+    }
+
+    private static NumberCodecs.LongCodec longCodec(GByteFieldInfo gByteFieldInfo) {
+        return NumberCodecs.longCodec(elementLength(gByteFieldInfo), gByteFieldInfo.getByteOrder(),
+                gByteFieldInfo.getOffsetType(), gByteFieldInfo.getOffsetNum());
+    }
+
+    private static final class ShortArrayAdapter extends TypeAdapter<short[]> {
+
+        /**
+         * 为null时每次按传入的元信息生成
+         */
+        private final NumberCodecs.IntCodec codec;
+
+        ShortArrayAdapter(NumberCodecs.IntCodec codec) {
+            this.codec = codec;
+        }
+
+        @Override
+        public short[] read(ByteBuf in, GByteFieldInfo gByteFieldInfo) {
+            NumberCodecs.IntCodec c = codec != null ? codec : intCodec(gByteFieldInfo);
+            if (c == null) {
+                log.warn("未处理元素字节长度为{}的short数组读取", gByteFieldInfo.getElementLength());
+                return null;
+            }
+
+            int length = gByteFieldInfo.getLength();
+            if (!in.isReadable(length * c.getLength())) {
+                return null;
+            }
+
+            short[] array = new short[length];
+            for (int i = 0; i < length; i++) {
+                array[i] = (short) c.readInt(in);
+            }
+            return array;
+        }
+
+        @Override
+        public void write(ByteBuf out, short[] value, GByteFieldInfo gByteFieldInfo) {
+            NumberCodecs.IntCodec c = codec != null ? codec : intCodec(gByteFieldInfo);
+            if (c == null) {
+                log.warn("未处理元素字节长度为{}的short数组写入", gByteFieldInfo.getElementLength());
+                return;
+            }
+
+            if (value == null) {
+                out.writeZero(gByteFieldInfo.getLength() * c.getLength());
+                return;
+            }
+            for (short v : value) {
+                c.writeInt(out, v);
+            }
+        }
+
+        @Override
+        public int fixedSize(GByteFieldInfo gByteFieldInfo) {
+            return size(gByteFieldInfo.getLength(), gByteFieldInfo);
+        }
+
+        @Override
+        public int size(short[] value, GByteFieldInfo gByteFieldInfo) {
+            return size(value == null ? gByteFieldInfo.getLength() : value.length, gByteFieldInfo);
+        }
+
+        private int size(int count, GByteFieldInfo gByteFieldInfo) {
+            NumberCodecs.IntCodec c = codec != null ? codec : intCodec(gByteFieldInfo);
+            return c != null ? count * c.getLength() : 0;
+        }
+    }
+
+    private static final class IntArrayAdapter extends TypeAdapter<int[]> {
+
+        /**
+         * 为null时每次按传入的元信息生成
+         */
+        private final NumberCodecs.IntCodec codec;
+
+        IntArrayAdapter(NumberCodecs.IntCodec codec) {
+            this.codec = codec;
+        }
+
+        @Override
+        public int[] read(ByteBuf in, GByteFieldInfo gByteFieldInfo) {
+            NumberCodecs.IntCodec c = codec != null ? codec : intCodec(gByteFieldInfo);
+            if (c == null) {
+                log.warn("未处理元素字节长度为{}的int数组读取", gByteFieldInfo.getElementLength());
+                return null;
+            }
+
+            int length = gByteFieldInfo.getLength();
+            if (!in.isReadable(length * c.getLength())) {
+                return null;
+            }
+
+            int[] array = new int[length];
+            for (int i = 0; i < length; i++) {
+                array[i] = c.readInt(in);
+            }
+            return array;
+        }
+
+        @Override
+        public void write(ByteBuf out, int[] value, GByteFieldInfo gByteFieldInfo) {
+            NumberCodecs.IntCodec c = codec != null ? codec : intCodec(gByteFieldInfo);
+            if (c == null) {
+                log.warn("未处理元素字节长度为{}的int数组写入", gByteFieldInfo.getElementLength());
+                return;
+            }
+
+            if (value == null) {
+                out.writeZero(gByteFieldInfo.getLength() * c.getLength());
+                return;
+            }
+            for (int v : value) {
+                c.writeInt(out, v);
+            }
+        }
+
+        @Override
+        public int fixedSize(GByteFieldInfo gByteFieldInfo) {
+            return size(gByteFieldInfo.getLength(), gByteFieldInfo);
+        }
+
+        @Override
+        public int size(int[] value, GByteFieldInfo gByteFieldInfo) {
+            return size(value == null ? gByteFieldInfo.getLength() : value.length, gByteFieldInfo);
+        }
+
+        private int size(int count, GByteFieldInfo gByteFieldInfo) {
+            NumberCodecs.IntCodec c = codec != null ? codec : intCodec(gByteFieldInfo);
+            return c != null ? count * c.getLength() : 0;
+        }
+    }
+
+    private static final class LongArrayAdapter extends TypeAdapter<long[]> {
+
+        /**
+         * 为null时每次按传入的元信息生成
+         */
+        private final NumberCodecs.LongCodec codec;
+
+        LongArrayAdapter(NumberCodecs.LongCodec codec) {
+            this.codec = codec;
+        }
+
+        @Override
+        public long[] read(ByteBuf in, GByteFieldInfo gByteFieldInfo) {
+            NumberCodecs.LongCodec c = codec != null ? codec : longCodec(gByteFieldInfo);
+            if (c == null) {
+                log.warn("未处理元素字节长度为{}的long数组读取", gByteFieldInfo.getElementLength());
+                return null;
+            }
+
+            int length = gByteFieldInfo.getLength();
+            if (!in.isReadable(length * c.getLength())) {
+                return null;
+            }
+
+            long[] array = new long[length];
+            for (int i = 0; i < length; i++) {
+                array[i] = c.readLong(in);
+            }
+            return array;
+        }
+
+        @Override
+        public void write(ByteBuf out, long[] value, GByteFieldInfo gByteFieldInfo) {
+            NumberCodecs.LongCodec c = codec != null ? codec : longCodec(gByteFieldInfo);
+            if (c == null) {
+                log.warn("未处理元素字节长度为{}的long数组写入", gByteFieldInfo.getElementLength());
+                return;
+            }
+
+            if (value == null) {
+                out.writeZero(gByteFieldInfo.getLength() * c.getLength());
+                return;
+            }
+            for (long v : value) {
+                c.writeLong(out, v);
+            }
+        }
+
+        @Override
+        public int fixedSize(GByteFieldInfo gByteFieldInfo) {
+            return size(gByteFieldInfo.getLength(), gByteFieldInfo);
+        }
+
+        @Override
+        public int size(long[] value, GByteFieldInfo gByteFieldInfo) {
+            return size(value == null ? gByteFieldInfo.getLength() : value.length, gByteFieldInfo);
+        }
+
+        private int size(int count, GByteFieldInfo gByteFieldInfo) {
+            NumberCodecs.LongCodec c = codec != null ? codec : longCodec(gByteFieldInfo);
+            return c != null ? count * c.getLength() : 0;
+        }
+    }
+}
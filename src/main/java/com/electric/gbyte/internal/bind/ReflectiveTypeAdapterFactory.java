@@ -10,14 +10,14 @@ import com.electric.gbyte.internal.$GByte$Types;
 import com.electric.gbyte.internal.ConstructorConstructor;
 import com.electric.gbyte.internal.ObjectConstructor;
 import com.electric.gbyte.internal.Primitives;
+import com.electric.gbyte.internal.reflect.FieldAccessor;
 import com.electric.gbyte.internal.reflect.ReflectionAccessor;
 import com.electric.gbyte.reflect.TypeToken;
 import io.netty.buffer.ByteBuf;
-import lombok.extern.slf4j.Slf4j;
 
 import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.Type;
-import java.nio.ByteOrder;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -26,18 +26,29 @@ import java.util.List;
  *
  * @author bingo
  */
-@Slf4j
 public final class ReflectiveTypeAdapterFactory implements TypeAdapterFactory {
 
+    private static final int NOT_COMPUTED = Integer.MIN_VALUE;
+
     private final ConstructorConstructor constructorConstructor;
 
     private final GByteAdapterAnnotationTypeAdapterFactory gByteAdapterFactory;
 
     private final ReflectionAccessor accessor = ReflectionAccessor.getInstance();
 
+    /**
+     * 是否通过字段的MethodHandle读写代替反射
+     */
+    private final boolean methodHandleAccessor;
+
     public ReflectiveTypeAdapterFactory(ConstructorConstructor constructorConstructor, GByteAdapterAnnotationTypeAdapterFactory gByteAdapterFactory) {
+        this(constructorConstructor, gByteAdapterFactory, false);
+    }
+
+    public ReflectiveTypeAdapterFactory(ConstructorConstructor constructorConstructor, GByteAdapterAnnotationTypeAdapterFactory gByteAdapterFactory, boolean methodHandleAccessor) {
         this.constructorConstructor = constructorConstructor;
         this.gByteAdapterFactory = gByteAdapterFactory;
+        this.methodHandleAccessor = methodHandleAccessor;
     }
 
     @Override
@@ -48,7 +59,26 @@ public final class ReflectiveTypeAdapterFactory implements TypeAdapterFactory {
         }
 
         ObjectConstructor<T> constructor = constructorConstructor.get(type);
-        return new Adapter<>(constructor, getBoundFields(gByte, type, raw, version));
+        return new Adapter<>(constructor, getBoundFields(gByte, type, raw, version), getResetFields(raw));
+    }
+
+    /**
+     * 复用对象时需重置的字段，包括其它版本的字段
+     */
+    private List<FieldAccessor> getResetFields(final Class<?> raw) {
+        List<FieldAccessor> result = new ArrayList<>();
+        if (raw.isInterface()) {
+            return result;
+        }
+
+        for (Field field : raw.getDeclaredFields()) {
+            if (field.getAnnotation(GByteField.class) == null || Modifier.isStatic(field.getModifiers())) {
+                continue;
+            }
+            accessor.makeAccessible(field);
+            result.add(methodHandleAccessor ? FieldAccessor.methodHandle(field) : FieldAccessor.reflective(field));
+        }
+        return result;
     }
 
     private ReflectiveTypeAdapterFactory.BoundField createBoundField(final GByte gByte, final Field field, final TypeToken<?> fieldType, final GByteFieldInfo gByteFieldInfo) {
@@ -66,33 +96,50 @@ public final class ReflectiveTypeAdapterFactory implements TypeAdapterFactory {
             mapped = gByte.getAdapter(fieldType, gByteFieldInfo.getCurrentVersion());
         }
 
-        final TypeAdapter<?> typeAdapter = mapped;
+        final TypeAdapter<?> typeAdapter = gByteAdapterPresent ? mapped : TypeAdapters.specialize(mapped, gByteFieldInfo);
 
-        return new ReflectiveTypeAdapterFactory.BoundField(gByteFieldInfo) {
+        // 专用的数字适配器对应的类型无需再按运行时类型选择
+        final boolean specialized = typeAdapter != mapped;
+
+        @SuppressWarnings({"rawtypes", "unchecked"})
+        final TypeAdapter<Object> writeAdapter = gByteAdapterPresent || specialized ? (TypeAdapter) typeAdapter : new TypeAdapterRuntimeTypeWrapper(gByte, typeAdapter, fieldType.getType(), gByteFieldInfo.getCurrentVersion());
+
+        final FieldAccessor fieldAccessor = methodHandleAccessor ? FieldAccessor.methodHandle(field) : FieldAccessor.reflective(field);
+
+        if (fieldType.getRawType() == int.class && typeAdapter instanceof NumberCodecs.IntCodec) {
+            return new IntBoundField(field.getName(), gByteFieldInfo, fieldAccessor, (NumberCodecs.IntCodec) typeAdapter);
+        }
+        if (fieldType.getRawType() == long.class && typeAdapter instanceof NumberCodecs.LongCodec) {
+            return new LongBoundField(field.getName(), gByteFieldInfo, fieldAccessor, (NumberCodecs.LongCodec) typeAdapter);
+        }
+
+        return new ReflectiveTypeAdapterFactory.BoundField(field.getName(), gByteFieldInfo, typeAdapter) {
             @Override
             void read(ByteBuf in, Object value) {
                 Object fieldValue = typeAdapter.read(in, this.gByteFieldInfo);
                 if (fieldValue != null || !isPrimitive) {
-                    try {
-                        field.set(value, fieldValue);
-                    } catch (IllegalAccessException e) {
-                        log.warn("GByte set field exception:{}", e.getMessage());
-                    }
+                    fieldAccessor.set(value, fieldValue);
                 }
             }
 
             @Override
-            @SuppressWarnings("all")
+            Object readValue(ByteBuf in) {
+                return typeAdapter.read(in, this.gByteFieldInfo);
+            }
+
+            @Override
             void write(ByteBuf out, Object value) {
-                Object fieldValue = null;
-                try {
-                    fieldValue = field.get(value);
-                } catch (IllegalAccessException e) {
-                    log.warn("GByte set field exception:{}", e.getMessage());
-                }
+                writeAdapter.write(out, fieldAccessor.get(value), this.gByteFieldInfo);
+            }
 
-                TypeAdapter t = gByteAdapterPresent ? typeAdapter : new TypeAdapterRuntimeTypeWrapper(gByte, typeAdapter, fieldType.getType(), this.gByteFieldInfo.getCurrentVersion());
-                t.write(out, fieldValue, this.gByteFieldInfo);
+            @Override
+            int fixedSize() {
+                return writeAdapter.fixedSize(this.gByteFieldInfo);
+            }
+
+            @Override
+            int size(Object value) {
+                return writeAdapter.size(fieldAccessor.get(value), this.gByteFieldInfo);
             }
         };
     }
@@ -117,27 +164,159 @@ public final class ReflectiveTypeAdapterFactory implements TypeAdapterFactory {
 
             Type fieldType = $GByte$Types.resolve(type.getType(), raw, field.getGenericType());
 
-            GByteFieldInfo gByteFieldInfo = new GByteFieldInfo(byteField.littleEndian() ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN,
-                    byteField.minVersion(), byteField.maxVersion(), version, byteField.length(), byteField.stringType(), byteField.stringFill(),
-                    byteField.offsetType(), byteField.offsetNum());
+            GByteFieldInfo gByteFieldInfo = GByteFieldInfo.of(byteField, version);
 
+            if (gByteFieldInfo.getBitLength() > 0) {
+                result.add(createBitBoundField(field, $GByte$Types.getRawType(fieldType), gByteFieldInfo, result.isEmpty() ? null : result.get(result.size() - 1)));
+                continue;
+            }
             result.add(createBoundField(gByte, field, TypeToken.get(fieldType), gByteFieldInfo));
         }
 
         return result;
     }
 
+    /**
+     * 紧接着的位字段数据的长度、字节序相同，且位与组内已占用的位不相交时加入同一组，与声明顺序无关
+     */
+    private BitBoundField createBitBoundField(final Field field, final Class<?> fieldType, final GByteFieldInfo gByteFieldInfo, final BoundField previous) {
+        int length = gByteFieldInfo.getLength();
+        NumberCodecs.Raw raw = NumberCodecs.Raw.of(length, gByteFieldInfo.getByteOrder());
+        if (raw == null || gByteFieldInfo.getBitOffset() < 0 || gByteFieldInfo.getBitOffset() + gByteFieldInfo.getBitLength() > Math.min(length * 8, 63)) {
+            throw new IllegalArgumentException("位字段超出数据长度: " + field);
+        }
+
+        long bits = ((1L << gByteFieldInfo.getBitLength()) - 1) << gByteFieldInfo.getBitOffset();
+        BitGroup group;
+        if (previous instanceof BitBoundField
+                && ((BitBoundField) previous).group.raw == raw
+                && (((BitBoundField) previous).group.occupied & bits) == 0) {
+            group = ((BitBoundField) previous).group;
+        } else {
+            group = new BitGroup(raw);
+        }
+        group.occupied |= bits;
+
+        FieldAccessor fieldAccessor = methodHandleAccessor ? FieldAccessor.methodHandle(field) : FieldAccessor.reflective(field);
+        BitBoundField bitField = new BitBoundField(field.getName(), gByteFieldInfo, group, fieldAccessor, fieldType);
+        group.add(bitField);
+        return bitField;
+    }
+
+    /**
+     * 按字段声明顺序生成的字段布局，供{@link MessageLayout}按偏移读取单个字段
+     */
+    public <T> MessageLayout<T> createLayout(final GByte gByte, final Class<T> type, final int version) {
+        return new MessageLayout<>(type, getBoundFields(gByte, TypeToken.get(type), type, version));
+    }
+
     static abstract class BoundField {
 
+        final String name;
+
         final GByteFieldInfo gByteFieldInfo;
 
-        BoundField(GByteFieldInfo gByteFieldInfo) {
+        /**
+         * 读取使用的适配器，已按字段元信息专用化
+         */
+        final TypeAdapter<?> typeAdapter;
+
+        BoundField(String name, GByteFieldInfo gByteFieldInfo, TypeAdapter<?> typeAdapter) {
+            this.name = name;
             this.gByteFieldInfo = gByteFieldInfo;
+            this.typeAdapter = typeAdapter;
         }
 
         abstract void write(ByteBuf out, Object value);
 
         abstract void read(ByteBuf in, Object value);
+
+        /**
+         * 只读取字段值，不设置到对象中
+         */
+        abstract Object readValue(ByteBuf in);
+
+        abstract int fixedSize();
+
+        int size(Object value) {
+            return fixedSize();
+        }
+    }
+
+    /**
+     * int字段直接读写基本类型，不经过装箱
+     */
+    private static final class IntBoundField extends BoundField {
+
+        private final FieldAccessor fieldAccessor;
+
+        private final NumberCodecs.IntCodec codec;
+
+        IntBoundField(String name, GByteFieldInfo gByteFieldInfo, FieldAccessor fieldAccessor, NumberCodecs.IntCodec codec) {
+            super(name, gByteFieldInfo, codec);
+            this.fieldAccessor = fieldAccessor;
+            this.codec = codec;
+        }
+
+        @Override
+        void read(ByteBuf in, Object value) {
+            if (in.isReadable(codec.getLength())) {
+                fieldAccessor.setInt(value, codec.readInt(in));
+            }
+        }
+
+        @Override
+        Object readValue(ByteBuf in) {
+            return in.isReadable(codec.getLength()) ? codec.readInt(in) : null;
+        }
+
+        @Override
+        void write(ByteBuf out, Object value) {
+            codec.writeInt(out, fieldAccessor.getInt(value));
+        }
+
+        @Override
+        int fixedSize() {
+            return codec.getLength();
+        }
+    }
+
+    /**
+     * long字段直接读写基本类型，不经过装箱
+     */
+    private static final class LongBoundField extends BoundField {
+
+        private final FieldAccessor fieldAccessor;
+
+        private final NumberCodecs.LongCodec codec;
+
+        LongBoundField(String name, GByteFieldInfo gByteFieldInfo, FieldAccessor fieldAccessor, NumberCodecs.LongCodec codec) {
+            super(name, gByteFieldInfo, codec);
+            this.fieldAccessor = fieldAccessor;
+            this.codec = codec;
+        }
+
+        @Override
+        void read(ByteBuf in, Object value) {
+            if (in.isReadable(codec.getLength())) {
+                fieldAccessor.setLong(value, codec.readLong(in));
+            }
+        }
+
+        @Override
+        Object readValue(ByteBuf in) {
+            return in.isReadable(codec.getLength()) ? codec.readLong(in) : null;
+        }
+
+        @Override
+        void write(ByteBuf out, Object value) {
+            codec.writeLong(out, fieldAccessor.getLong(value));
+        }
+
+        @Override
+        int fixedSize() {
+            return codec.getLength();
+        }
     }
 
     public static final class Adapter<T> extends TypeAdapter<T> {
@@ -146,14 +325,38 @@ public final class ReflectiveTypeAdapterFactory implements TypeAdapterFactory {
 
         private final List<BoundField> boundFields;
 
-        Adapter(ObjectConstructor<T> constructor, List<BoundField> boundFields) {
+        private final List<FieldAccessor> resetFields;
+
+        /**
+         * 首次使用时计算并缓存，创建时字段可能还引用着递归创建中的适配器
+         */
+        private int fixedSize = NOT_COMPUTED;
+
+        Adapter(ObjectConstructor<T> constructor, List<BoundField> boundFields, List<FieldAccessor> resetFields) {
             this.constructor = constructor;
             this.boundFields = boundFields;
+            this.resetFields = resetFields;
         }
 
         @Override
         public T read(final ByteBuf in, final GByteFieldInfo gByteFieldInfo) {
-            T instance = constructor.construct();
+            return read(in, null, gByteFieldInfo);
+        }
+
+        /**
+         * 复用前把所有{@link GByteField}字段重置为0、false或null，数据不足或当前版本没有的字段不会保留上一帧的值
+         */
+        @Override
+        public T read(final ByteBuf in, final T reuse, final GByteFieldInfo gByteFieldInfo) {
+            T instance;
+            if (reuse != null) {
+                instance = reuse;
+                for (FieldAccessor field : resetFields) {
+                    field.reset(instance);
+                }
+            } else {
+                instance = constructor.construct();
+            }
             for (BoundField field : boundFields) {
                 field.read(in, instance);
             }
@@ -166,5 +369,223 @@ public final class ReflectiveTypeAdapterFactory implements TypeAdapterFactory {
                 field.write(out, value);
             }
         }
+
+        @Override
+        public int fixedSize(final GByteFieldInfo gByteFieldInfo) {
+            int size = fixedSize;
+            if (size == NOT_COMPUTED) {
+                size = 0;
+                for (BoundField field : boundFields) {
+                    size = addSize(size, field.fixedSize());
+                }
+                fixedSize = size;
+            }
+            return size;
+        }
+
+        @Override
+        public int size(final T value, final GByteFieldInfo gByteFieldInfo) {
+            int size = fixedSize(gByteFieldInfo);
+            if (size != UNKNOWN_SIZE || value == null) {
+                return size;
+            }
+
+            size = 0;
+            for (BoundField field : boundFields) {
+                size = addSize(size, field.size(value));
+            }
+            return size;
+        }
+    }
+
+    /**
+     * 连续的位字段共用的数据
+     */
+    private static final class BitGroup {
+
+        final NumberCodecs.Raw raw;
+
+        final List<BitBoundField> fields = new ArrayList<>();
+
+        /**
+         * 组内字段已占用的位
+         */
+        long occupied;
+
+        BitGroup(NumberCodecs.Raw raw) {
+            this.raw = raw;
+        }
+
+        void add(BitBoundField field) {
+            if (!fields.isEmpty()) {
+                fields.get(fields.size() - 1).last = false;
+            }
+            fields.add(field);
+        }
+    }
+
+    /**
+     * 位字段，组内最后一个字段负责整组的读写，其余字段读写时不处理，长度为0
+     * <p>
+     * 整组读取时只取一次数据，写入时合并所有字段后一次写入；单独读取时从字段位置取出整组数据再截取
+     */
+    static final class BitBoundField extends BoundField {
+
+        private static final int BOOLEAN = 0;
+        private static final int BYTE = 1;
+        private static final int SHORT = 2;
+        private static final int INT = 3;
+        private static final int LONG = 4;
+        private static final int BOXED = 5;
+        private static final int ENUM = 6;
+
+        private final BitGroup group;
+
+        private final FieldAccessor fieldAccessor;
+
+        private final Class<?> fieldType;
+
+        private final int kind;
+
+        private final int bitOffset;
+
+        private final long mask;
+
+        private final Object[] enumConstants;
+
+        private boolean last = true;
+
+        BitBoundField(String name, GByteFieldInfo gByteFieldInfo, BitGroup group, FieldAccessor fieldAccessor, Class<?> fieldType) {
+            // 位字段没有单独的适配器
+            super(name, gByteFieldInfo, null);
+            this.group = group;
+            this.fieldAccessor = fieldAccessor;
+            this.fieldType = fieldType;
+            this.bitOffset = gByteFieldInfo.getBitOffset();
+            this.mask = (1L << gByteFieldInfo.getBitLength()) - 1;
+            this.enumConstants = fieldType.isEnum() ? fieldType.getEnumConstants() : null;
+
+            if (fieldType == boolean.class) {
+                kind = BOOLEAN;
+            } else if (fieldType == byte.class) {
+                kind = BYTE;
+            } else if (fieldType == short.class) {
+                kind = SHORT;
+            } else if (fieldType == int.class) {
+                kind = INT;
+            } else if (fieldType == long.class) {
+                kind = LONG;
+            } else if (fieldType.isEnum()) {
+                kind = ENUM;
+            } else if (fieldType == Boolean.class || fieldType == Byte.class || fieldType == Short.class
+                    || fieldType == Integer.class || fieldType == Long.class) {
+                kind = BOXED;
+            } else {
+                throw new IllegalArgumentException("不支持的位字段类型: " + fieldType.getName() + " " + name);
+            }
+        }
+
+        /**
+         * 从index处整组的数据中截取本字段
+         */
+        long getBits(ByteBuf buf, int index) {
+            return group.raw.get(buf, index) >>> bitOffset & mask;
+        }
+
+        @Override
+        void read(ByteBuf in, Object value) {
+            if (!last || !in.isReadable(group.raw.length)) {
+                return;
+            }
+
+            long word = group.raw.read(in);
+            for (BitBoundField field : group.fields) {
+                field.set(value, word >>> field.bitOffset & field.mask);
+            }
+        }
+
+        @Override
+        Object readValue(ByteBuf in) {
+            if (!in.isReadable(group.raw.length)) {
+                return null;
+            }
+
+            Object value = toObject(getBits(in, in.readerIndex()));
+            if (last) {
+                in.skipBytes(group.raw.length);
+            }
+            return value;
+        }
+
+        @Override
+        void write(ByteBuf out, Object value) {
+            if (!last) {
+                return;
+            }
+
+            long word = 0;
+            for (BitBoundField field : group.fields) {
+                word |= (field.get(value) & field.mask) << field.bitOffset;
+            }
+            group.raw.write(out, word);
+        }
+
+        @Override
+        int fixedSize() {
+            return last ? group.raw.length : 0;
+        }
+
+        private void set(Object target, long bits) {
+            switch (kind) {
+                case BOOLEAN -> fieldAccessor.setBoolean(target, bits != 0);
+                case BYTE -> fieldAccessor.setByte(target, (byte) bits);
+                case SHORT -> fieldAccessor.setShort(target, (short) bits);
+                case INT -> fieldAccessor.setInt(target, (int) bits);
+                case LONG -> fieldAccessor.setLong(target, bits);
+                default -> fieldAccessor.set(target, toObject(bits));
+            }
+        }
+
+        private long get(Object target) {
+            return switch (kind) {
+                case BOOLEAN -> fieldAccessor.getBoolean(target) ? 1 : 0;
+                case BYTE -> fieldAccessor.getByte(target);
+                case SHORT -> fieldAccessor.getShort(target);
+                case INT -> fieldAccessor.getInt(target);
+                case LONG -> fieldAccessor.getLong(target);
+                default -> {
+                    Object value = fieldAccessor.get(target);
+                    if (value == null) {
+                        yield 0;
+                    }
+                    if (value instanceof Boolean) {
+                        yield (Boolean) value ? 1 : 0;
+                    }
+                    yield value instanceof Enum ? ((Enum<?>) value).ordinal() : ((Number) value).longValue();
+                }
+            };
+        }
+
+        /**
+         * 超出枚举常量个数的值为null
+         */
+        private Object toObject(long bits) {
+            if (fieldType == boolean.class || fieldType == Boolean.class) {
+                return bits != 0;
+            }
+            if (fieldType == byte.class || fieldType == Byte.class) {
+                return (byte) bits;
+            }
+            if (fieldType == short.class || fieldType == Short.class) {
+                return (short) bits;
+            }
+            if (fieldType == int.class || fieldType == Integer.class) {
+                return (int) bits;
+            }
+            if (enumConstants != null) {
+                return bits < enumConstants.length ? enumConstants[(int) bits] : null;
+            }
+            return bits;
+        }
     }
 }
@@ -3,7 +3,6 @@ package com.electric.gbyte.internal.bind;
 import com.electric.gbyte.GByte;
 import com.electric.gbyte.TypeAdapter;
 import com.electric.gbyte.annotations.GByteFieldInfo;
-import com.electric.gbyte.reflect.TypeToken;
 import io.netty.buffer.ByteBuf;
 
 import java.lang.reflect.Type;
@@ -35,12 +34,34 @@ final class TypeAdapterRuntimeTypeWrapper<T> extends TypeAdapter<T> {
     }
 
     @Override
-    @SuppressWarnings({"rawtypes", "unchecked"})
+    public T read(final ByteBuf in, final T reuse, final GByteFieldInfo gByteFieldInfo) {
+        return delegate.read(in, reuse, gByteFieldInfo);
+    }
+
+    @Override
     public void write(final ByteBuf out, final T value, final GByteFieldInfo gByteFieldInfo) {
+        chooseAdapter(value).write(out, value, gByteFieldInfo);
+    }
+
+    /**
+     * 按声明类型的适配器计算
+     */
+    @Override
+    public int fixedSize(final GByteFieldInfo gByteFieldInfo) {
+        return delegate.fixedSize(gByteFieldInfo);
+    }
+
+    @Override
+    public int size(final T value, final GByteFieldInfo gByteFieldInfo) {
+        return chooseAdapter(value).size(value, gByteFieldInfo);
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private TypeAdapter<T> chooseAdapter(final T value) {
         TypeAdapter chosen = delegate;
         Type runtimeType = getRuntimeTypeIfMoreSpecific(type, value);
         if (runtimeType != type) {
-            TypeAdapter runtimeTypeAdapter = context.getAdapter(TypeToken.get(runtimeType), version);
+            TypeAdapter runtimeTypeAdapter = context.getAdapter((Class<?>) runtimeType, version);
             if (!(runtimeTypeAdapter instanceof ReflectiveTypeAdapterFactory.Adapter)) {
                 chosen = runtimeTypeAdapter;
             } else if (!(delegate instanceof ReflectiveTypeAdapterFactory.Adapter)) {
@@ -49,7 +70,7 @@ final class TypeAdapterRuntimeTypeWrapper<T> extends TypeAdapter<T> {
                 chosen = runtimeTypeAdapter;
             }
         }
-        chosen.write(out, value, gByteFieldInfo);
+        return chosen;
     }
 
     private Type getRuntimeTypeIfMoreSpecific(Type type, Object value) {
@@ -5,10 +5,14 @@ import com.electric.gbyte.annotations.GByteFieldInfo;
 import com.electric.gbyte.reflect.TypeToken;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.Unpooled;
 import lombok.extern.slf4j.Slf4j;
 
+import java.lang.reflect.Type;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.charset.StandardCharsets;
 
@@ -51,6 +55,24 @@ public final class TypeAdapters {
         };
     }
 
+    /**
+     * 匹配type及其子类，用于ByteBuf等运行时类型各不相同的抽象类型
+     */
+    public static <TT> TypeAdapterFactory newTypeHierarchyFactory(final Class<TT> type, final TypeAdapter<TT> typeAdapter) {
+        return new TypeAdapterFactory() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <T> TypeAdapter<T> create(GByte gByte, TypeToken<T> typeToken, Integer version) {
+                return type.isAssignableFrom(typeToken.getRawType()) ? (TypeAdapter<T>) typeAdapter : null;
+            }
+
+            @Override
+            public String toString() {
+                return "Factory[typeHierarchy=" + type.getName() + ",adapter=" + typeAdapter + "]";
+            }
+        };
+    }
+
     public static <TT> TypeAdapterFactory newFactory(final TypeToken<TT> type, final TypeAdapter<TT> typeAdapter) {
         return new TypeAdapterFactory() {
             @Override
@@ -61,6 +83,33 @@ public final class TypeAdapters {
         };
     }
 
+    /**
+     * 写入时按值的运行时类型选择适配器，供编译期生成的适配器使用
+     */
+    public static <TT> TypeAdapter<TT> runtimeTypeWrapper(GByte gByte, TypeAdapter<TT> typeAdapter, Type type, Integer version) {
+        return new TypeAdapterRuntimeTypeWrapper<>(gByte, typeAdapter, type, version);
+    }
+
+    /**
+     * 按字段元信息生成专用的数字及基本类型数组适配器，每次读写不再判断长度、字节序和偏移类型，无法专用化时返回原适配器
+     */
+    @SuppressWarnings("unchecked")
+    public static <TT> TypeAdapter<TT> specialize(TypeAdapter<TT> typeAdapter, GByteFieldInfo gByteFieldInfo) {
+        TypeAdapter<?> result = null;
+        if (typeAdapter == INTEGER) {
+            result = NumberCodecs.intCodec(gByteFieldInfo);
+        } else if (typeAdapter == LONG) {
+            result = NumberCodecs.longCodec(gByteFieldInfo);
+        } else if (typeAdapter == BIG_DECIMAL) {
+            result = NumberCodecs.bigDecimalCodec(gByteFieldInfo);
+        } else if (typeAdapter == FIXED) {
+            result = NumberCodecs.fixedCodec(gByteFieldInfo);
+        } else {
+            result = PrimitiveArrayTypeAdapters.specialize(typeAdapter, gByteFieldInfo);
+        }
+        return result != null ? (TypeAdapter<TT>) result : typeAdapter;
+    }
+
     public static final TypeAdapter<String> STRING = new TypeAdapter<>() {
         @Override
         public String read(final ByteBuf in, final GByteFieldInfo gByteFieldInfo) {
@@ -71,27 +120,9 @@ public final class TypeAdapters {
                 return null;
             }
 
-            byte[] bytes = new byte[length];
-            in.readBytes(bytes);
-
-            switch (gByteFieldInfo.getStringType()) {
-                case Constant.STRING_BCD -> {
-                    // 0x1A1B => 1A1B
-                    return ByteBufUtil.hexDump(bytes);
-                }
-                case Constant.STRING_UTF8 -> {
-                    // 0xE4B8ADE59BBD => 中国
-                    return new String(bytes, StandardCharsets.UTF_8).trim();
-                }
-                case Constant.STRING_ASCII -> {
-                    // 0x3141 => 1A
-                    return new String(bytes, StandardCharsets.US_ASCII).trim();
-                }
-                default -> {
-                    log.warn("未知的字符处理类型:{}读取", gByteFieldInfo.getStringType());
-                    return null;
-                }
-            }
+            int index = in.readerIndex();
+            in.skipBytes(length);
+            return decodeString(in, index, length, gByteFieldInfo);
         }
 
         @Override
@@ -101,25 +132,126 @@ public final class TypeAdapters {
                 return;
             }
 
+            int start = out.writerIndex();
+            int len;
             switch (gByteFieldInfo.getStringType()) {
-                case Constant.STRING_BCD -> {
-                    byte[] bytes = ByteBufUtil.decodeHexDump(value);
-                    out.writeBytes(bytes);
-                    GByteUtils.valueFillBytes(out, gByteFieldInfo.getLength() - bytes.length, gByteFieldInfo.getStringFill());
-                }
-                case Constant.STRING_ASCII -> {
-                    int len = ByteBufUtil.writeAscii(out, value);
-                    GByteUtils.valueFillBytes(out, gByteFieldInfo.getLength() - len, gByteFieldInfo.getStringFill());
+                case Constant.STRING_BCD -> len = BcdCodec.writeString(out, value);
+                case Constant.STRING_ASCII -> len = ByteBufUtil.writeAscii(out, value);
+                case Constant.STRING_UTF8 -> len = out.writeCharSequence(value, StandardCharsets.UTF_8);
+                default -> {
+                    log.warn("未知的字符处理类型:{}写入", gByteFieldInfo.getStringType());
+                    return;
                 }
-                case Constant.STRING_UTF8 -> {
-                    int writtenBytesNumber = out.writeCharSequence(value, StandardCharsets.UTF_8);
-                    GByteUtils.valueFillBytes(out, gByteFieldInfo.getLength() - writtenBytesNumber, gByteFieldInfo.getStringFill());
+            }
+
+            int length = gByteFieldInfo.getLength();
+            if (length > 0 && len > length) {
+                out.writerIndex(start + truncate(out, start, length, gByteFieldInfo.getStringType()));
+                len = out.writerIndex() - start;
+            }
+            GByteUtils.valueFillBytes(out, length - len, gByteFieldInfo.getStringFill());
+        }
+
+        /**
+         * 定长字段超长时截断到length字节，UTF-8不拆开多字节字符，不足的部分再填充
+         */
+        private int truncate(ByteBuf out, int start, int length, byte stringType) {
+            if (stringType == Constant.STRING_UTF8) {
+                while (length > 0 && (out.getUnsignedByte(start + length) & 0xc0) == 0x80) {
+                    length--;
                 }
-                default -> log.warn("未知的字符处理类型:{}写入", gByteFieldInfo.getStringType());
             }
+            return length;
+        }
+
+        @Override
+        public int fixedSize(final GByteFieldInfo gByteFieldInfo) {
+            return gByteFieldInfo.getLength() > 0 ? gByteFieldInfo.getLength() : UNKNOWN_SIZE;
+        }
+
+        @Override
+        public int size(final String value, final GByteFieldInfo gByteFieldInfo) {
+            if (value == null || gByteFieldInfo.getLength() > 0) {
+                return gByteFieldInfo.getLength();
+            }
+
+            int len = switch (gByteFieldInfo.getStringType()) {
+                case Constant.STRING_BCD -> value.length() / 2;
+                case Constant.STRING_ASCII -> value.length();
+                case Constant.STRING_UTF8 -> ByteBufUtil.utf8Bytes(value);
+                default -> 0;
+            };
+            return len;
         }
     };
 
+    /**
+     * 直接从in的index处解码字符串，不复制到中间数组，不移动readerIndex
+     * <p>
+     * ASCII和UTF-8按下标去掉两端不大于空格的字符，与原先解码后trim的结果一致；BCD保留全部数字。
+     * 填充字节不可能出现在合法的编码中时（ASCII为0x80以上，UTF-8为0xC0、0xC1和0xF5以上）才一并去掉末尾的填充；
+     * 其它可打印的填充如'0'、'F'无法与值本身区分，不去掉，解码结果保留填充
+     */
+    static String decodeString(ByteBuf in, int index, int length, GByteFieldInfo gByteFieldInfo) {
+        switch (gByteFieldInfo.getStringType()) {
+            case Constant.STRING_BCD -> {
+                // 0x1A1B => 1A1B
+                return BcdCodec.getString(in, index, length);
+            }
+            case Constant.STRING_UTF8 -> {
+                // 0xE4B8ADE59BBD => 中国
+                int fill = gByteFieldInfo.getStringFill() & 0xff;
+                boolean invalidUtf8 = fill == 0xc0 || fill == 0xc1 || fill >= 0xf5;
+                int end = trimEnd(in, index, index + length, invalidUtf8 ? fill : -1);
+                int start = trimStart(in, index, end);
+                return in.toString(start, end - start, StandardCharsets.UTF_8);
+            }
+            case Constant.STRING_ASCII -> {
+                // 0x3141 => 1A
+                int fill = gByteFieldInfo.getStringFill() & 0xff;
+                int end = trimEnd(in, index, index + length, fill >= 0x80 ? fill : -1);
+                int start = trimStart(in, index, end);
+                return in.toString(start, end - start, StandardCharsets.US_ASCII);
+            }
+            default -> {
+                log.warn("未知的字符处理类型:{}读取", gByteFieldInfo.getStringType());
+                return null;
+            }
+        }
+    }
+
+    /**
+     * 多字节UTF-8字符的每个字节都不小于0x80，按字节去掉不大于空格的字符与String.trim()一致
+     *
+     * @param fill 需一并去掉的填充字节，-1表示不去掉
+     */
+    private static int trimEnd(ByteBuf in, int start, int end, int fill) {
+        while (end > start) {
+            int b = in.getUnsignedByte(end - 1);
+            if (b > ' ' && b != fill) {
+                break;
+            }
+            end--;
+        }
+        return end;
+    }
+
+    private static int trimStart(ByteBuf in, int start, int end) {
+        while (start < end && in.getUnsignedByte(start) <= ' ') {
+            start++;
+        }
+        return start;
+    }
+
+    /**
+     * 读取压缩BCD码的数字
+     */
+    private static long readBcd(ByteBuf in, int length) {
+        long value = BcdCodec.getLong(in, in.readerIndex(), length);
+        in.skipBytes(length);
+        return value;
+    }
+
     public static final TypeAdapter<Byte> BYTE = new TypeAdapter<>() {
         @Override
         public Byte read(final ByteBuf in, final GByteFieldInfo gByteFieldInfo) {
@@ -138,6 +270,11 @@ public final class TypeAdapters {
                 out.writeByte(value);
             }
         }
+
+        @Override
+        public int fixedSize(final GByteFieldInfo gByteFieldInfo) {
+            return 1;
+        }
     };
 
     public static final TypeAdapter<Integer> INTEGER = new TypeAdapter<>() {
@@ -148,12 +285,16 @@ public final class TypeAdapters {
             }
 
             int value = 0;
-            switch (gByteFieldInfo.getLength()) {
-                case 1 -> value = in.readUnsignedByte();
-                case 2 -> value = ByteOrder.LITTLE_ENDIAN == gByteFieldInfo.getByteOrder() ? in.readUnsignedShortLE() : in.readUnsignedShort();
-                case 3 -> value = ByteOrder.LITTLE_ENDIAN == gByteFieldInfo.getByteOrder() ? in.readUnsignedMediumLE() : in.readUnsignedMedium();
-                case 4 -> value = (int) (ByteOrder.LITTLE_ENDIAN == gByteFieldInfo.getByteOrder() ? in.readUnsignedIntLE() : in.readUnsignedInt());
-                default -> log.warn("未处理字节长度为{}的Integer型读取", gByteFieldInfo.getLength());
+            if (gByteFieldInfo.getStringType() == Constant.STRING_BCD) {
+                value = (int) readBcd(in, gByteFieldInfo.getLength());
+            } else {
+                switch (gByteFieldInfo.getLength()) {
+                    case 1 -> value = in.readUnsignedByte();
+                    case 2 -> value = ByteOrder.LITTLE_ENDIAN == gByteFieldInfo.getByteOrder() ? in.readUnsignedShortLE() : in.readUnsignedShort();
+                    case 3 -> value = ByteOrder.LITTLE_ENDIAN == gByteFieldInfo.getByteOrder() ? in.readUnsignedMediumLE() : in.readUnsignedMedium();
+                    case 4 -> value = (int) (ByteOrder.LITTLE_ENDIAN == gByteFieldInfo.getByteOrder() ? in.readUnsignedIntLE() : in.readUnsignedInt());
+                    default -> log.warn("未处理字节长度为{}的Integer型读取", gByteFieldInfo.getLength());
+                }
             }
 
             return switch (gByteFieldInfo.getOffsetType()) {
@@ -178,6 +319,11 @@ public final class TypeAdapters {
                 };
             }
 
+            if (gByteFieldInfo.getStringType() == Constant.STRING_BCD) {
+                BcdCodec.writeLong(out, val, gByteFieldInfo.getLength());
+                return;
+            }
+
             switch (gByteFieldInfo.getLength()) {
                 case 1 -> out.writeByte(val);
                 case 2 -> {
@@ -204,6 +350,11 @@ public final class TypeAdapters {
                 default -> log.warn("未处理字节长度为{}的Integer型写入", gByteFieldInfo.getLength());
             }
         }
+
+        @Override
+        public int fixedSize(final GByteFieldInfo gByteFieldInfo) {
+            return numberSize(gByteFieldInfo);
+        }
     };
 
     public static final TypeAdapter<Number> LONG = new TypeAdapter<>() {
@@ -214,7 +365,9 @@ public final class TypeAdapters {
             }
 
             long value = 0;
-            if (gByteFieldInfo.getLength() == 8) {
+            if (gByteFieldInfo.getStringType() == Constant.STRING_BCD) {
+                value = readBcd(in, gByteFieldInfo.getLength());
+            } else if (gByteFieldInfo.getLength() == 8) {
                 value = ByteOrder.LITTLE_ENDIAN == gByteFieldInfo.getByteOrder() ? in.readLongLE() : in.readLong();
             } else {
                 log.warn("未处理字节长度为{}的Long型读取", gByteFieldInfo.getLength());
@@ -243,7 +396,9 @@ public final class TypeAdapters {
                 };
             }
 
-            if (gByteFieldInfo.getLength() == 8) {
+            if (gByteFieldInfo.getStringType() == Constant.STRING_BCD) {
+                BcdCodec.writeLong(out, val, gByteFieldInfo.getLength());
+            } else if (gByteFieldInfo.getLength() == 8) {
                 if (ByteOrder.LITTLE_ENDIAN == gByteFieldInfo.getByteOrder()) {
                     out.writeLongLE(val);
                 } else {
@@ -253,6 +408,14 @@ public final class TypeAdapters {
                 log.warn("未处理字节长度为{}的Integer型写入", gByteFieldInfo.getLength());
             }
         }
+
+        @Override
+        public int fixedSize(final GByteFieldInfo gByteFieldInfo) {
+            if (gByteFieldInfo.getStringType() == Constant.STRING_BCD) {
+                return gByteFieldInfo.getLength();
+            }
+            return gByteFieldInfo.getLength() == 8 ? 8 : 0;
+        }
     };
 
     public static final TypeAdapter<BigDecimal> BIG_DECIMAL = new TypeAdapter<>() {
@@ -263,12 +426,16 @@ public final class TypeAdapters {
             }
 
             BigDecimal value = BigDecimal.ZERO;
-            switch (gByteFieldInfo.getLength()) {
-                case 1 -> value = new BigDecimal(in.readUnsignedByte());
-                case 2 -> value = new BigDecimal(ByteOrder.LITTLE_ENDIAN == gByteFieldInfo.getByteOrder() ? in.readUnsignedShortLE() : in.readUnsignedShort());
-                case 3 -> value = new BigDecimal(ByteOrder.LITTLE_ENDIAN == gByteFieldInfo.getByteOrder() ? in.readUnsignedMediumLE() : in.readUnsignedMedium());
-                case 4 -> value = new BigDecimal(ByteOrder.LITTLE_ENDIAN == gByteFieldInfo.getByteOrder() ? in.readUnsignedIntLE() : in.readUnsignedInt());
-                default -> log.warn("未处理字节长度为{}的BigDecimal型读取", gByteFieldInfo.getLength());
+            if (gByteFieldInfo.getStringType() == Constant.STRING_BCD) {
+                value = new BigDecimal(readBcd(in, gByteFieldInfo.getLength()));
+            } else {
+                switch (gByteFieldInfo.getLength()) {
+                    case 1 -> value = new BigDecimal(in.readUnsignedByte());
+                    case 2 -> value = new BigDecimal(ByteOrder.LITTLE_ENDIAN == gByteFieldInfo.getByteOrder() ? in.readUnsignedShortLE() : in.readUnsignedShort());
+                    case 3 -> value = new BigDecimal(ByteOrder.LITTLE_ENDIAN == gByteFieldInfo.getByteOrder() ? in.readUnsignedMediumLE() : in.readUnsignedMedium());
+                    case 4 -> value = new BigDecimal(ByteOrder.LITTLE_ENDIAN == gByteFieldInfo.getByteOrder() ? in.readUnsignedIntLE() : in.readUnsignedInt());
+                    default -> log.warn("未处理字节长度为{}的BigDecimal型读取", gByteFieldInfo.getLength());
+                }
             }
 
             int bit = switch (gByteFieldInfo.getOffsetNum()) {
@@ -296,6 +463,11 @@ public final class TypeAdapters {
                 val = value.multiply(new BigDecimal(gByteFieldInfo.getOffsetNum())).intValue();
             }
 
+            if (gByteFieldInfo.getStringType() == Constant.STRING_BCD) {
+                BcdCodec.writeLong(out, val, gByteFieldInfo.getLength());
+                return;
+            }
+
             switch (gByteFieldInfo.getLength()) {
                 case 1 -> out.writeByte(val);
                 case 2 -> {
@@ -322,8 +494,186 @@ public final class TypeAdapters {
                 default -> log.warn("未处理字节长度为{}的BigDecimal型写入", gByteFieldInfo.getLength());
             }
         }
+
+        @Override
+        public int fixedSize(final GByteFieldInfo gByteFieldInfo) {
+            return numberSize(gByteFieldInfo);
+        }
+    };
+
+    /**
+     * 定点小数，按{@link Constant#NUMBER_OFFSET_DIVIDE}的除数确定小数位数，原始值即为unscaled
+     * <p>
+     * 字段上的适配器由{@link #specialize}预先创建；集合元素等其它位置连续使用同一字段的元信息，
+     * 这里只缓存最近一次的编解码器，不随元信息数量增长
+     */
+    public static final TypeAdapter<Fixed> FIXED = new TypeAdapter<>() {
+
+        private volatile CachedFixedCodec cached;
+
+        private NumberCodecs.FixedCodec fixedCodec(GByteFieldInfo gByteFieldInfo) {
+            CachedFixedCodec c = cached;
+            if (c != null && (c.gByteFieldInfo == gByteFieldInfo || c.gByteFieldInfo.equals(gByteFieldInfo))) {
+                return c.codec;
+            }
+
+            NumberCodecs.FixedCodec codec = NumberCodecs.fixedCodec(gByteFieldInfo);
+            if (codec != null) {
+                cached = new CachedFixedCodec(gByteFieldInfo, codec);
+            }
+            return codec;
+        }
+
+        @Override
+        public Fixed read(final ByteBuf in, final GByteFieldInfo gByteFieldInfo) {
+            NumberCodecs.FixedCodec codec = fixedCodec(gByteFieldInfo);
+            if (codec == null) {
+                log.warn("未处理字节长度为{}的Fixed型读取", gByteFieldInfo.getLength());
+                return null;
+            }
+            return codec.read(in, gByteFieldInfo);
+        }
+
+        @Override
+        public void write(ByteBuf out, final Fixed value, final GByteFieldInfo gByteFieldInfo) {
+            NumberCodecs.FixedCodec codec = fixedCodec(gByteFieldInfo);
+            if (codec == null) {
+                log.warn("未处理字节长度为{}的Fixed型写入", gByteFieldInfo.getLength());
+                return;
+            }
+            codec.write(out, value, gByteFieldInfo);
+        }
+
+        @Override
+        public int fixedSize(final GByteFieldInfo gByteFieldInfo) {
+            NumberCodecs.FixedCodec codec = fixedCodec(gByteFieldInfo);
+            return codec != null ? codec.getLength() : 0;
+        }
+    };
+
+    private static final class CachedFixedCodec {
+
+        final GByteFieldInfo gByteFieldInfo;
+
+        final NumberCodecs.FixedCodec codec;
+
+        CachedFixedCodec(GByteFieldInfo gByteFieldInfo, NumberCodecs.FixedCodec codec) {
+            this.gByteFieldInfo = gByteFieldInfo;
+            this.codec = codec;
+        }
+    }
+
+    /**
+     * 未处理的字节长度不写入
+     */
+    private static int numberSize(GByteFieldInfo gByteFieldInfo) {
+        int length = gByteFieldInfo.getLength();
+        if (gByteFieldInfo.getStringType() == Constant.STRING_BCD) {
+            return length;
+        }
+        return length >= 1 && length <= 4 ? length : 0;
+    }
+
+    /**
+     * 透传的数据块，读取时返回输入的retained slice，不拷贝，使用方负责release
+     * <p>
+     * length为0时读取剩余全部字节；写入CompositeByteBuf时作为component追加，否则拷贝，不足length时按stringFill填充
+     */
+    public static final TypeAdapter<ByteBuf> BYTE_BUF = new TypeAdapter<>() {
+        @Override
+        public ByteBuf read(final ByteBuf in, final GByteFieldInfo gByteFieldInfo) {
+            int length = gByteFieldInfo.getLength();
+            if (length == 0) {
+                length = in.readableBytes();
+            } else if (!in.isReadable(length)) {
+                return null;
+            }
+
+            return in.readRetainedSlice(length);
+        }
+
+        @Override
+        public void write(ByteBuf out, final ByteBuf value, final GByteFieldInfo gByteFieldInfo) {
+            if (value == null) {
+                GByteUtils.valueFillBytes(out, gByteFieldInfo.getLength(), gByteFieldInfo.getStringFill());
+                return;
+            }
+
+            int readable = value.readableBytes();
+            if (out instanceof CompositeByteBuf) {
+                addComponent((CompositeByteBuf) out, value.retainedSlice());
+            } else {
+                out.writeBytes(value, value.readerIndex(), readable);
+            }
+            GByteUtils.valueFillBytes(out, gByteFieldInfo.getLength() - readable, gByteFieldInfo.getStringFill());
+        }
+
+        @Override
+        public int fixedSize(final GByteFieldInfo gByteFieldInfo) {
+            return gByteFieldInfo.getLength() > 0 ? gByteFieldInfo.getLength() : UNKNOWN_SIZE;
+        }
+
+        @Override
+        public int size(final ByteBuf value, final GByteFieldInfo gByteFieldInfo) {
+            return value == null ? gByteFieldInfo.getLength() : Math.max(value.readableBytes(), gByteFieldInfo.getLength());
+        }
+    };
+
+    /**
+     * 透传的数据块，读取时返回输入的只读视图，不拷贝，仅在输入未释放前有效
+     */
+    public static final TypeAdapter<ByteBuffer> BYTE_BUFFER = new TypeAdapter<>() {
+        @Override
+        public ByteBuffer read(final ByteBuf in, final GByteFieldInfo gByteFieldInfo) {
+            int length = gByteFieldInfo.getLength();
+            if (length == 0) {
+                length = in.readableBytes();
+            } else if (!in.isReadable(length)) {
+                return null;
+            }
+
+            ByteBuffer value = in.nioBuffer(in.readerIndex(), length).asReadOnlyBuffer();
+            in.skipBytes(length);
+            return value;
+        }
+
+        @Override
+        public void write(ByteBuf out, final ByteBuffer value, final GByteFieldInfo gByteFieldInfo) {
+            if (value == null) {
+                GByteUtils.valueFillBytes(out, gByteFieldInfo.getLength(), gByteFieldInfo.getStringFill());
+                return;
+            }
+
+            int readable = value.remaining();
+            if (out instanceof CompositeByteBuf) {
+                addComponent((CompositeByteBuf) out, Unpooled.wrappedBuffer(value.duplicate()));
+            } else {
+                out.writeBytes(value.duplicate());
+            }
+            GByteUtils.valueFillBytes(out, gByteFieldInfo.getLength() - readable, gByteFieldInfo.getStringFill());
+        }
+
+        @Override
+        public int fixedSize(final GByteFieldInfo gByteFieldInfo) {
+            return gByteFieldInfo.getLength() > 0 ? gByteFieldInfo.getLength() : UNKNOWN_SIZE;
+        }
+
+        @Override
+        public int size(final ByteBuffer value, final GByteFieldInfo gByteFieldInfo) {
+            return value == null ? gByteFieldInfo.getLength() : Math.max(value.remaining(), gByteFieldInfo.getLength());
+        }
     };
 
+    /**
+     * 先裁掉已分配未写入的容量，保证component紧接在writerIndex之后
+     */
+    private static void addComponent(CompositeByteBuf out, ByteBuf component) {
+        if (out.capacity() > out.writerIndex()) {
+            out.capacity(out.writerIndex());
+        }
+        out.addComponent(true, component);
+    }
+
     public static final TypeAdapter<Boolean> BOOLEAN = new TypeAdapter<>() {
         @Override
         public Boolean read(final ByteBuf in, final GByteFieldInfo gByteFieldInfo) {
@@ -334,6 +684,11 @@ public final class TypeAdapters {
         public void write(ByteBuf out, final Boolean value, final GByteFieldInfo gByteFieldInfo) {
             out.writeBoolean(value);
         }
+
+        @Override
+        public int fixedSize(final GByteFieldInfo gByteFieldInfo) {
+            return 1;
+        }
     };
 
 }
@@ -0,0 +1,96 @@
+package com.electric.gbyte.internal.reflect;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+
+/**
+ * 字段读写
+ * <p>
+ * 基本类型提供不装箱的读写方法，默认实现退化为装箱的{@link #get(Object)}和{@link #set(Object, Object)}
+ *
+ * @author bingo
+ */
+public abstract class FieldAccessor {
+
+    protected final Field field;
+
+    /**
+     * 字段类型的默认值，基本类型为装箱的0或false
+     */
+    private final Object defaultValue;
+
+    protected FieldAccessor(Field field) {
+        this.field = field;
+        this.defaultValue = field.getType().isPrimitive() ? Array.get(Array.newInstance(field.getType(), 1), 0) : null;
+    }
+
+    public Field getField() {
+        return field;
+    }
+
+    public abstract Object get(Object target);
+
+    public abstract void set(Object target, Object value);
+
+    public int getInt(Object target) {
+        return (Integer) get(target);
+    }
+
+    public void setInt(Object target, int value) {
+        set(target, value);
+    }
+
+    public long getLong(Object target) {
+        return (Long) get(target);
+    }
+
+    public void setLong(Object target, long value) {
+        set(target, value);
+    }
+
+    public short getShort(Object target) {
+        return (Short) get(target);
+    }
+
+    public void setShort(Object target, short value) {
+        set(target, value);
+    }
+
+    public byte getByte(Object target) {
+        return (Byte) get(target);
+    }
+
+    public void setByte(Object target, byte value) {
+        set(target, value);
+    }
+
+    /**
+     * 重置为字段类型的默认值0、false或null
+     */
+    public void reset(Object target) {
+        set(target, defaultValue);
+    }
+
+    public boolean getBoolean(Object target) {
+        return (Boolean) get(target);
+    }
+
+    public void setBoolean(Object target, boolean value) {
+        set(target, value);
+    }
+
+    /**
+     * 通过{@link Field}反射读写
+     */
+    public static FieldAccessor reflective(Field field) {
+        return new ReflectiveFieldAccessor(field);
+    }
+
+    /**
+     * 通过字段的MethodHandle读写，final字段或创建失败时退化为反射读写
+     */
+    public static FieldAccessor methodHandle(Field field) {
+        FieldAccessor accessor = MethodHandleFieldAccessor.create(field);
+        return accessor != null ? accessor : reflective(field);
+    }
+}
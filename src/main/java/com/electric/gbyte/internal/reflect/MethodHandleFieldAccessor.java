@@ -0,0 +1,312 @@
+package com.electric.gbyte.internal.reflect;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+/**
+ * 通过字段的MethodHandle读写，不经过getter/setter
+ * <p>
+ * 每个字段的访问器持有按字段类型适配好的getter/setter句柄，以invokeExact调用，基本类型字段不经过装箱，
+ * 结果与{@link ReflectiveFieldAccessor}一致
+ *
+ * @author bingo
+ */
+@Slf4j
+final class MethodHandleFieldAccessor {
+
+    private MethodHandleFieldAccessor() {
+
+    }
+
+    /**
+     * @return final字段或创建句柄失败时返回null
+     */
+    static FieldAccessor create(Field field) {
+        if (Modifier.isStatic(field.getModifiers()) || Modifier.isFinal(field.getModifiers())) {
+            return null;
+        }
+
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(field.getDeclaringClass(), MethodHandles.lookup());
+            MethodHandle getter = lookup.unreflectGetter(field);
+            MethodHandle setter = lookup.unreflectSetter(field);
+
+            Class<?> type = field.getType();
+            if (type != int.class && type != long.class && type != short.class && type != byte.class && type != boolean.class) {
+                type = Object.class;
+            }
+            getter = getter.asType(MethodType.methodType(type, Object.class));
+            setter = setter.asType(MethodType.methodType(void.class, Object.class, type));
+
+            if (type == int.class) {
+                return new OfInt(field, getter, setter);
+            } else if (type == long.class) {
+                return new OfLong(field, getter, setter);
+            } else if (type == short.class) {
+                return new OfShort(field, getter, setter);
+            } else if (type == byte.class) {
+                return new OfByte(field, getter, setter);
+            } else if (type == boolean.class) {
+                return new OfBoolean(field, getter, setter);
+            }
+            return new OfObject(field, getter, setter);
+        } catch (Throwable e) {
+            log.warn("GByte create accessor for {} failed, fallback to reflection:{}", field, e.toString());
+            return null;
+        }
+    }
+
+    /**
+     * invokeExact声明抛出Throwable，字段读写实际只会抛出运行时异常
+     */
+    private static RuntimeException rethrow(Throwable e) {
+        if (e instanceof RuntimeException) {
+            return (RuntimeException) e;
+        }
+        if (e instanceof Error) {
+            throw (Error) e;
+        }
+        return new IllegalStateException(e);
+    }
+
+    private static final class OfObject extends FieldAccessor {
+
+        private final MethodHandle getter;
+
+        private final MethodHandle setter;
+
+        OfObject(Field field, MethodHandle getter, MethodHandle setter) {
+            super(field);
+            this.getter = getter;
+            this.setter = setter;
+        }
+
+        @Override
+        public Object get(Object target) {
+            try {
+                return (Object) getter.invokeExact(target);
+            } catch (Throwable e) {
+                throw rethrow(e);
+            }
+        }
+
+        @Override
+        public void set(Object target, Object value) {
+            try {
+                setter.invokeExact(target, value);
+            } catch (Throwable e) {
+                throw rethrow(e);
+            }
+        }
+    }
+
+    private static final class OfInt extends FieldAccessor {
+
+        private final MethodHandle getter;
+
+        private final MethodHandle setter;
+
+        OfInt(Field field, MethodHandle getter, MethodHandle setter) {
+            super(field);
+            this.getter = getter;
+            this.setter = setter;
+        }
+
+        @Override
+        public Object get(Object target) {
+            return getInt(target);
+        }
+
+        @Override
+        public void set(Object target, Object value) {
+            setInt(target, ((Number) value).intValue());
+        }
+
+        @Override
+        public int getInt(Object target) {
+            try {
+                return (int) getter.invokeExact(target);
+            } catch (Throwable e) {
+                throw rethrow(e);
+            }
+        }
+
+        @Override
+        public void setInt(Object target, int value) {
+            try {
+                setter.invokeExact(target, value);
+            } catch (Throwable e) {
+                throw rethrow(e);
+            }
+        }
+    }
+
+    private static final class OfLong extends FieldAccessor {
+
+        private final MethodHandle getter;
+
+        private final MethodHandle setter;
+
+        OfLong(Field field, MethodHandle getter, MethodHandle setter) {
+            super(field);
+            this.getter = getter;
+            this.setter = setter;
+        }
+
+        @Override
+        public Object get(Object target) {
+            return getLong(target);
+        }
+
+        @Override
+        public void set(Object target, Object value) {
+            setLong(target, ((Number) value).longValue());
+        }
+
+        @Override
+        public long getLong(Object target) {
+            try {
+                return (long) getter.invokeExact(target);
+            } catch (Throwable e) {
+                throw rethrow(e);
+            }
+        }
+
+        @Override
+        public void setLong(Object target, long value) {
+            try {
+                setter.invokeExact(target, value);
+            } catch (Throwable e) {
+                throw rethrow(e);
+            }
+        }
+    }
+
+    private static final class OfShort extends FieldAccessor {
+
+        private final MethodHandle getter;
+
+        private final MethodHandle setter;
+
+        OfShort(Field field, MethodHandle getter, MethodHandle setter) {
+            super(field);
+            this.getter = getter;
+            this.setter = setter;
+        }
+
+        @Override
+        public Object get(Object target) {
+            return getShort(target);
+        }
+
+        @Override
+        public void set(Object target, Object value) {
+            setShort(target, (Short) value);
+        }
+
+        @Override
+        public short getShort(Object target) {
+            try {
+                return (short) getter.invokeExact(target);
+            } catch (Throwable e) {
+                throw rethrow(e);
+            }
+        }
+
+        @Override
+        public void setShort(Object target, short value) {
+            try {
+                setter.invokeExact(target, value);
+            } catch (Throwable e) {
+                throw rethrow(e);
+            }
+        }
+    }
+
+    private static final class OfByte extends FieldAccessor {
+
+        private final MethodHandle getter;
+
+        private final MethodHandle setter;
+
+        OfByte(Field field, MethodHandle getter, MethodHandle setter) {
+            super(field);
+            this.getter = getter;
+            this.setter = setter;
+        }
+
+        @Override
+        public Object get(Object target) {
+            return getByte(target);
+        }
+
+        @Override
+        public void set(Object target, Object value) {
+            setByte(target, (Byte) value);
+        }
+
+        @Override
+        public byte getByte(Object target) {
+            try {
+                return (byte) getter.invokeExact(target);
+            } catch (Throwable e) {
+                throw rethrow(e);
+            }
+        }
+
+        @Override
+        public void setByte(Object target, byte value) {
+            try {
+                setter.invokeExact(target, value);
+            } catch (Throwable e) {
+                throw rethrow(e);
+            }
+        }
+    }
+
+    private static final class OfBoolean extends FieldAccessor {
+
+        private final MethodHandle getter;
+
+        private final MethodHandle setter;
+
+        OfBoolean(Field field, MethodHandle getter, MethodHandle setter) {
+            super(field);
+            this.getter = getter;
+            this.setter = setter;
+        }
+
+        @Override
+        public Object get(Object target) {
+            return getBoolean(target);
+        }
+
+        @Override
+        public void set(Object target, Object value) {
+            setBoolean(target, (Boolean) value);
+        }
+
+        @Override
+        public boolean getBoolean(Object target) {
+            try {
+                return (boolean) getter.invokeExact(target);
+            } catch (Throwable e) {
+                throw rethrow(e);
+            }
+        }
+
+        @Override
+        public void setBoolean(Object target, boolean value) {
+            try {
+                setter.invokeExact(target, value);
+            } catch (Throwable e) {
+                throw rethrow(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.electric.gbyte.internal.reflect;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.Field;
+
+/**
+ * @author bingo
+ */
+@Slf4j
+final class ReflectiveFieldAccessor extends FieldAccessor {
+
+    ReflectiveFieldAccessor(Field field) {
+        super(field);
+    }
+
+    @Override
+    public Object get(Object target) {
+        try {
+            return field.get(target);
+        } catch (IllegalAccessException e) {
+            log.warn("GByte get field exception:{}", e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public void set(Object target, Object value) {
+        try {
+            field.set(target, value);
+        } catch (IllegalAccessException e) {
+            log.warn("GByte set field exception:{}", e.getMessage());
+        }
+    }
+
+    @Override
+    public int getInt(Object target) {
+        try {
+            return field.getInt(target);
+        } catch (IllegalAccessException e) {
+            log.warn("GByte get field exception:{}", e.getMessage());
+            return 0;
+        }
+    }
+
+    @Override
+    public void setInt(Object target, int value) {
+        try {
+            field.setInt(target, value);
+        } catch (IllegalAccessException e) {
+            log.warn("GByte set field exception:{}", e.getMessage());
+        }
+    }
+
+    @Override
+    public long getLong(Object target) {
+        try {
+            return field.getLong(target);
+        } catch (IllegalAccessException e) {
+            log.warn("GByte get field exception:{}", e.getMessage());
+            return 0;
+        }
+    }
+
+    @Override
+    public void setLong(Object target, long value) {
+        try {
+            field.setLong(target, value);
+        } catch (IllegalAccessException e) {
+            log.warn("GByte set field exception:{}", e.getMessage());
+        }
+    }
+
+    @Override
+    public short getShort(Object target) {
+        try {
+            return field.getShort(target);
+        } catch (IllegalAccessException e) {
+            log.warn("GByte get field exception:{}", e.getMessage());
+            return 0;
+        }
+    }
+
+    @Override
+    public void setShort(Object target, short value) {
+        try {
+            field.setShort(target, value);
+        } catch (IllegalAccessException e) {
+            log.warn("GByte set field exception:{}", e.getMessage());
+        }
+    }
+
+    @Override
+    public byte getByte(Object target) {
+        try {
+            return field.getByte(target);
+        } catch (IllegalAccessException e) {
+            log.warn("GByte get field exception:{}", e.getMessage());
+            return 0;
+        }
+    }
+
+    @Override
+    public void setByte(Object target, byte value) {
+        try {
+            field.setByte(target, value);
+        } catch (IllegalAccessException e) {
+            log.warn("GByte set field exception:{}", e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean getBoolean(Object target) {
+        try {
+            return field.getBoolean(target);
+        } catch (IllegalAccessException e) {
+            log.warn("GByte get field exception:{}", e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public void setBoolean(Object target, boolean value) {
+        try {
+            field.setBoolean(target, value);
+        } catch (IllegalAccessException e) {
+            log.warn("GByte set field exception:{}", e.getMessage());
+        }
+    }
+}
@@ -26,6 +26,13 @@ public class TypeToken<T> {
         return new TypeToken<>(type);
     }
 
+    /**
+     * 例如List&lt;Address&gt;为getParameterized(List.class, Address.class)
+     */
+    public static TypeToken<?> getParameterized(Type rawType, Type... typeArguments) {
+        return new TypeToken<>($GByte$Types.newParameterizedTypeWithOwner(null, rawType, typeArguments));
+    }
+
     public final Class<? super T> getRawType() {
         return rawType;
     }
@@ -1,12 +1,31 @@
 package com.electric.gbyte;
 
+import com.electric.gbyte.annotations.GByteCommand;
 import com.electric.gbyte.annotations.GByteField;
+import com.electric.gbyte.annotations.GByteFieldInfo;
+import com.electric.gbyte.decoder.BaseDecoder;
+import com.electric.gbyte.decoder.CommandEncoder;
+import com.electric.gbyte.decoder.CommandRegistry;
+import com.electric.gbyte.decoder.FrameChecksum;
+import com.electric.gbyte.decoder.FrameWriter;
+import com.electric.gbyte.decoder.RunningChecksum;
+import com.electric.gbyte.internal.bind.TypeAdapters;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.PooledByteBufAllocator;
 import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.embedded.EmbeddedChannel;
 import lombok.Data;
 
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -69,6 +88,722 @@ class GByteTest {
         assertArrayEquals(new byte[]{1, 2, 3}, addresses.getData());
     }
 
+    @org.junit.jupiter.api.Test
+    @SuppressWarnings("deprecation")
+    void testRootFieldInfo() {
+        for (int version : new int[]{1, 207, 5000, -1}) {
+            assertSame(GByteFieldInfo.root(version), GByteFieldInfo.root(version));
+            assertEquals(version, GByteFieldInfo.root(version).getCurrentVersion());
+            assertEquals(new GByteFieldInfo(version), GByteFieldInfo.root(version));
+        }
+        assertEquals(new GByteFieldInfo(), GByteFieldInfo.builder().build());
+    }
+
+    @org.junit.jupiter.api.Test
+    void testCachesPerInstance() {
+        // 适配器和布局引用着GByte，只能缓存在实例中，不能挂在Class上，否则丢弃的GByte无法回收
+        GByte first = new GByteBuilder().create();
+        GByte second = new GByteBuilder().create();
+        assertSame(first.getAdapter(Address.class, 207), first.getAdapter(Address.class, 207));
+        assertNotSame(first.getAdapter(Address.class, 207), second.getAdapter(Address.class, 207));
+        assertSame(first.getLayout(Address.class, 1), first.getLayout(Address.class, 1));
+        assertNotSame(first.getLayout(Address.class, 1), second.getLayout(Address.class, 1));
+    }
+
+    @org.junit.jupiter.api.Test
+    void testMethodHandleAccessor() {
+        GByte reflective = new GByteBuilder().create();
+        GByte methodHandle = new GByteBuilder().enableMethodHandleAccessor().create();
+
+        Address address = new Address();
+        address.setIp("10.0.0.1");
+        address.setPort(502);
+
+        ByteBuf expected = Unpooled.buffer(19);
+        reflective.toByteBuf(expected, address, 1);
+        ByteBuf actual = Unpooled.buffer(19);
+        methodHandle.toByteBuf(actual, address, 1);
+        assertEquals(expected, actual);
+
+        assertEquals(address, methodHandle.fromByteBuf(actual, Address.class, 1));
+
+        // 直接读写字段，与反射一致，不经过getter/setter
+        Normalized normalized = new Normalized();
+        normalized.code = "abcd";
+        normalized.count = 7;
+        expected = Unpooled.buffer();
+        reflective.toByteBuf(expected, normalized, 1);
+        actual = Unpooled.buffer();
+        methodHandle.toByteBuf(actual, normalized, 1);
+        assertEquals("61626364" + "07", ByteBufUtil.hexDump(actual));
+        assertEquals(expected, actual);
+
+        Normalized decoded = methodHandle.fromByteBuf(actual, Normalized.class, 1);
+        assertEquals("abcd", decoded.code);
+        assertEquals(7, decoded.count);
+    }
+
+    @org.junit.jupiter.api.Test
+    void testNumberCodec() {
+        GByte gByte = new GByteBuilder().create();
+        ByteBuf data = Unpooled.buffer(15);
+        data.writeShortLE(90);
+        data.writeShortLE(65);
+        data.writeLongLE(123);
+        data.writeMedium(0x010203);
+
+        Meter meter = gByte.fromByteBuf(data.duplicate(), Meter.class, 1);
+        assertEquals(new BigDecimal("0.90"), meter.getVoltage());
+        assertEquals(25, meter.getTemperature());
+        assertEquals(1230L, meter.getEnergy());
+        assertEquals(0x010203, meter.getCount());
+
+        ByteBuf actual = Unpooled.buffer(15);
+        gByte.toByteBuf(actual, meter, 1);
+        assertEquals(data, actual);
+    }
+
+    @org.junit.jupiter.api.Test
+    void testEncodedSize() {
+        GByte gByte = new GByteBuilder().create();
+        assertEquals(15, gByte.encodedSize(Meter.class, 1));
+        assertEquals(24, gByte.encodedSize(Cells.class, 1));
+        assertEquals(TypeAdapter.UNKNOWN_SIZE, gByte.encodedSize(Addresses.class, 1));
+        assertEquals(TypeAdapter.UNKNOWN_SIZE, gByte.encodedSize(Chunk.class, 1));
+
+        Address address = new Address();
+        address.setIp("192.168.1.1");
+        address.setPort(8080);
+        Addresses addresses = new Addresses();
+        addresses.setAddressList(List.of(address, address));
+        addresses.setData(new byte[]{1, 2, 3});
+
+        Chunk chunk = new Chunk();
+        chunk.setPayload(Unpooled.wrappedBuffer(new byte[]{1, 2}));
+        chunk.setTail(ByteBuffer.wrap(new byte[5]));
+
+        // 超长的定长字符串截断，UTF-8不拆开多字节字符
+        Pile pile = new Pile();
+        pile.setCode("3201020304050607");
+        pile.setName("A0123456789");
+        pile.setRemark("中国中国");
+
+        for (Object src : List.of(new Meter(), addresses, chunk, pile, new Addresses())) {
+            ByteBuf out = Unpooled.buffer();
+            gByte.toByteBuf(out, src, 1);
+            assertEquals(out.readableBytes(), gByte.encodedSize(src, 1));
+            out.release();
+        }
+
+        ByteBuf out = Unpooled.buffer();
+        gByte.toByteBuf(out, pile, 1);
+        Pile actual = gByte.fromByteBuf(out, Pile.class, 1);
+        assertEquals("A01234", actual.getName());
+        assertEquals("中国中", actual.getRemark());
+    }
+
+    @org.junit.jupiter.api.Test
+    void testEncode() {
+        GByte gByte = new GByteBuilder().create();
+        Meter meter = new Meter();
+        meter.setVoltage(new BigDecimal("2.20"));
+        meter.setCount(3);
+
+        ByteBuf expected = Unpooled.buffer();
+        gByte.toByteBuf(expected, meter, 1);
+
+        ByteBuf actual = gByte.encode(PooledByteBufAllocator.DEFAULT, meter, 1);
+        assertEquals(expected, actual);
+        // 按编码长度分配，不扩容
+        assertEquals(15, actual.capacity());
+        assertTrue(actual.release());
+    }
+
+    @org.junit.jupiter.api.Test
+    void testLazyMessage() {
+        GByte gByte = new GByteBuilder().create();
+        Meter meter = new Meter();
+        meter.setVoltage(new BigDecimal("2.20"));
+        meter.setTemperature(25);
+        meter.setEnergy(990L);
+        meter.setCount(0x0a0b0c);
+        ByteBuf in = Unpooled.buffer();
+        gByte.toByteBuf(in, meter, 1);
+        in.writeByte(0x16);
+
+        LazyMessage<Meter> lazy = gByte.lazy(in, Meter.class, 1);
+        assertEquals(15, in.readerIndex());
+        assertEquals(25, lazy.getInt("temperature"));
+        assertEquals(990L, lazy.getLong("energy"));
+        assertEquals(new BigDecimal("2.20"), lazy.get("voltage"));
+        assertSame(lazy.get("voltage"), lazy.get("voltage"));
+        assertEquals(meter, lazy.toMessage());
+        assertThrows(IllegalArgumentException.class, () -> lazy.get("power"));
+        assertTrue(lazy.release());
+        assertEquals(1, in.refCnt());
+        // 任意版本号的布局只创建一次
+        assertSame(gByte.getLayout(Meter.class, 207), gByte.getLayout(Meter.class, 207));
+
+        // 自定义适配器的读取方式与字段布局无关，不能延迟解码
+        TypeAdapter<Meter> reflective = gByte.getAdapter(Meter.class, 1);
+        GByte custom = new GByteBuilder().registerTypeAdapter(Meter.class, new TypeAdapter<Meter>() {
+            @Override
+            public Meter read(ByteBuf in, GByteFieldInfo gByteFieldInfo) {
+                return reflective.read(in, gByteFieldInfo);
+            }
+
+            @Override
+            public void write(ByteBuf out, Meter value, GByteFieldInfo gByteFieldInfo) {
+                reflective.write(out, value, gByteFieldInfo);
+            }
+        }).create();
+        assertThrows(IllegalArgumentException.class, () -> custom.view(Meter.class, 1));
+
+        // 不定长字段之后的偏移按实际数据确定
+        Address address = new Address();
+        address.setIp("192.168.1.1");
+        address.setPort(8080);
+        Addresses addresses = new Addresses();
+        addresses.setAddressList(List.of(address, address));
+        addresses.setData(new byte[]{1, 2, 3});
+        ByteBuf variable = Unpooled.buffer();
+        gByte.toByteBuf(variable, addresses, 1);
+
+        LazyMessage<Addresses> lazyAddresses = gByte.lazy(variable, Addresses.class, 1);
+        assertArrayEquals(new byte[]{1, 2, 3}, (byte[]) lazyAddresses.get("data"));
+        assertEquals(List.of(address, address), lazyAddresses.get("addressList"));
+        lazyAddresses.release();
+    }
+
+    @org.junit.jupiter.api.Test
+    void testFixed() {
+        GByte gByte = new GByteBuilder().create();
+        Reading reading = new Reading();
+        reading.setEnergy(Fixed.parse("123.4567"));
+        reading.setPower(Fixed.parse("22.05"));
+        reading.setAmount(Fixed.parse("1234.56"));
+        ByteBuf data = Unpooled.buffer();
+        gByte.toByteBuf(data, reading, 1);
+
+        Reading actual = gByte.fromByteBuf(data.duplicate(), Reading.class, 1);
+        assertEquals(Fixed.of(1234567, 4), actual.getEnergy());
+        assertEquals(Fixed.of(221, 1), actual.getPower());
+        assertEquals(reading.getAmount(), actual.getAmount());
+        assertEquals(actual.getEnergy(), gByte.view(Reading.class, 1).wrap(data).getFixed(0));
+
+        Fixed sum = actual.getEnergy().add(actual.getPower()).subtract(Fixed.valueOf(1));
+        assertEquals("144.5567", sum.toString());
+        assertEquals(new BigDecimal("144.5567"), sum.toBigDecimal());
+        assertEquals("-0.05", Fixed.parse("-0.05").toString());
+        assertEquals(14456, sum.unscaled(2));
+        assertEquals(0, Fixed.parse("1.0").compareTo(Fixed.parse("1.00")));
+        assertThrows(ArithmeticException.class, () -> Fixed.of(Long.MAX_VALUE, 0).add(Fixed.of(1, 0)));
+
+        // 非10的整数次幂的除数按绝对值四舍五入，负数远离0
+        int ratio = data.writerIndex() - 8;
+        long[][] cases = {{-3, -1}, {-2, -1}, {-1, 0}, {2, 1}, {5, 1}, {6, 2}};
+        for (long[] c : cases) {
+            data.setLongLE(ratio, c[0]);
+            Reading decoded = gByte.fromByteBuf(data.duplicate(), Reading.class, 1);
+            assertEquals(Fixed.valueOf(c[1]), decoded.getRatio(), "raw " + c[0]);
+        }
+
+        // 未专用化的适配器交替使用不同的元信息
+        GByteFieldInfo tenths = GByteFieldInfo.builder().length(2).offsetType(Constant.NUMBER_OFFSET_DIVIDE).offsetNum(10).build();
+        GByteFieldInfo hundredths = GByteFieldInfo.builder().length(2).offsetType(Constant.NUMBER_OFFSET_DIVIDE).offsetNum(100).build();
+        ByteBuf raw = Unpooled.buffer().writeShortLE(1234).writeShortLE(1234);
+        assertEquals(Fixed.of(1234, 1), TypeAdapters.FIXED.read(raw, tenths));
+        assertEquals(Fixed.of(1234, 2), TypeAdapters.FIXED.read(raw, hundredths));
+    }
+
+    @org.junit.jupiter.api.Test
+    void testBitField() {
+        GByte gByte = new GByteBuilder().create();
+        GunStatus status = new GunStatus();
+        status.setAlarm(true);
+        status.setMode(2);
+        status.setState(GunState.FAULT);
+        status.setFlags(0xabc);
+        status.setCode((short) 5);
+        status.setVoltage(2200);
+        ByteBuf data = Unpooled.buffer();
+        gByte.toByteBuf(data, status, 1);
+        assertEquals("25" + "5abc" + "9808", ByteBufUtil.hexDump(data));
+
+        assertEquals(status, gByte.fromByteBuf(data.duplicate(), GunStatus.class, 1));
+
+        MessageView<GunStatus> view = gByte.view(GunStatus.class, 1).wrap(data);
+        assertEquals(5, view.size());
+        assertTrue(view.getBoolean(view.field("alarm")));
+        assertEquals(2, view.getInt(view.field("mode")));
+        assertEquals(GunState.FAULT, view.get(view.field("state")));
+        assertEquals(0xabc, view.getInt(view.field("flags")));
+        assertEquals(5, view.getInt(view.field("code")));
+        assertEquals(2200, view.getInt(view.field("voltage")));
+
+        // 从高位往低位声明的字段同样共用一个字节
+        Nibbles nibbles = new Nibbles();
+        nibbles.setHigh(5);
+        nibbles.setLow(0xa);
+        assertEquals(1, gByte.encodedSize(Nibbles.class, 1));
+        ByteBuf packed = Unpooled.buffer();
+        gByte.toByteBuf(packed, nibbles, 1);
+        assertEquals("5a", ByteBufUtil.hexDump(packed));
+        assertEquals(nibbles, gByte.fromByteBuf(packed, Nibbles.class, 1));
+    }
+
+    @org.junit.jupiter.api.Test
+    void testBcd() {
+        GByte gByte = new GByteBuilder().create();
+        Card card = new Card();
+        card.setCardNo("1234567890abcdef");
+        card.setTime(211018123059L);
+        card.setYear(2021);
+        card.setBalance(new BigDecimal("1234.56"));
+        ByteBuf data = Unpooled.buffer();
+        gByte.toByteBuf(data, card, 1);
+        assertEquals("1234567890abcdefffff" + "211018123059" + "2021" + "123456", ByteBufUtil.hexDump(data));
+        assertEquals(card.getTime(), gByte.view(Card.class, 1).wrap(data).getLong(1));
+
+        Card actual = gByte.fromByteBuf(data.duplicate(), Card.class, 1);
+        assertEquals("1234567890abcdefffff", actual.getCardNo());
+        actual.setCardNo(card.getCardNo());
+        assertEquals(card, actual);
+
+        card.setCardNo("123");
+        assertThrows(IllegalArgumentException.class, () -> gByte.toByteBuf(Unpooled.buffer(), card, 1));
+    }
+
+    @org.junit.jupiter.api.Test
+    void testStringIntern() {
+        Pile pile = new Pile();
+        pile.setCode("3201020304050607");
+        pile.setName("A01");
+        pile.setRemark(" 中国 ");
+        ByteBuf data = Unpooled.buffer();
+        new GByteBuilder().create().toByteBuf(data, pile, 1);
+
+        Pile expected = new Pile();
+        expected.setCode("3201020304050607");
+        expected.setName("A01");
+        expected.setRemark("中国");
+        GByte gByte = new GByteBuilder().enableStringIntern().create();
+        Pile first = gByte.fromByteBuf(data.duplicate(), Pile.class, 1);
+        Pile second = gByte.fromByteBuf(Unpooled.copiedBuffer(data), Pile.class, 1);
+        assertEquals(expected, first);
+        assertEquals(expected, second);
+        assertSame(first.getCode(), second.getCode());
+        assertSame(first.getName(), second.getName());
+        assertEquals(expected, new GByteBuilder().create().fromByteBuf(data.duplicate(), Pile.class, 1));
+    }
+
+    @org.junit.jupiter.api.Test
+    void testPrintableStringFill() {
+        GByte gByte = new GByteBuilder().create();
+        Serial serial = new Serial();
+        serial.setNo("AB00");
+        ByteBuf data = Unpooled.buffer();
+        gByte.toByteBuf(data, serial, 1);
+        assertEquals("AB0000", data.toString(StandardCharsets.US_ASCII));
+
+        // 可打印的填充无法与值本身区分，解码时保留
+        Serial actual = gByte.fromByteBuf(data, Serial.class, 1);
+        assertEquals("AB0000", actual.getNo());
+    }
+
+    @org.junit.jupiter.api.Test
+    void testMessageRecycler() {
+        GByte gByte = new GByteBuilder().create();
+        Meter meter = new Meter();
+        meter.setVoltage(new BigDecimal("2.20"));
+        meter.setTemperature(25);
+        meter.setEnergy(1230L);
+        meter.setCount(7);
+        ByteBuf data = Unpooled.buffer();
+        gByte.toByteBuf(data, meter, 1);
+
+        Meter reuse = new Meter();
+        assertSame(reuse, gByte.fromByteBufInto(data.duplicate(), reuse, 1));
+        assertEquals(meter, reuse);
+
+        MessageRecycler<Meter> recycler = new MessageRecycler<>(gByte, Meter.class, 1, 1);
+        Meter first = recycler.decode(data.duplicate());
+        assertEquals(meter, first);
+        assertTrue(recycler.recycle(first));
+        assertFalse(recycler.recycle(new Meter()));
+        Meter second = recycler.decode(data.duplicate());
+        assertSame(first, second);
+        assertEquals(meter, second);
+        assertNotSame(second, recycler.decode(data.duplicate()));
+
+        // 未解码过的线程没有池，回收的对象不入池
+        boolean[] recycled = {true};
+        Thread worker = new Thread(() -> recycled[0] = recycler.recycle(new Meter()));
+        worker.start();
+        assertDoesNotThrow(() -> worker.join());
+        assertFalse(recycled[0]);
+
+        // 截断的帧复用对象时与新解码的结果一致，不保留上一帧的值
+        ByteBuf truncated = data.slice(0, 4);
+        Meter fresh = gByte.fromByteBuf(truncated.duplicate(), Meter.class, 1);
+        assertEquals(0L, fresh.getEnergy());
+        assertNull(fresh.getCount());
+        assertEquals(fresh, gByte.fromByteBufInto(truncated.duplicate(), second, 1));
+    }
+
+    @org.junit.jupiter.api.Test
+    void testMessageView() {
+        GByte gByte = new GByteBuilder().create();
+        ByteBuf in = Unpooled.buffer();
+        for (int i = 0; i < 3; i++) {
+            Meter meter = new Meter();
+            meter.setVoltage(new BigDecimal("2.2" + i));
+            meter.setTemperature(20 + i);
+            meter.setEnergy(1000L * i);
+            meter.setCount(i);
+            gByte.toByteBuf(in, meter, 1);
+        }
+
+        MessageView<Meter> view = gByte.view(Meter.class, 1);
+        int voltage = view.field("voltage");
+        int temperature = view.field("temperature");
+        int energy = view.field("energy");
+        int count = view.field("count");
+        for (int i = 0; i < 3; i++) {
+            view.wrap(in, i * view.size());
+            assertEquals(new BigDecimal("2.2" + i), view.getBigDecimal(voltage));
+            assertEquals(20 + i, view.getInt(temperature));
+            assertEquals(1000L * i, view.getLong(energy));
+            assertEquals(i, view.getInt(count));
+        }
+        assertEquals(0, in.readerIndex());
+        assertThrows(IndexOutOfBoundsException.class, () -> view.wrap(in, 31));
+        assertThrows(IllegalArgumentException.class, () -> gByte.view(Addresses.class, 1));
+    }
+
+    @org.junit.jupiter.api.Test
+    void testPrimitiveArray() {
+        GByte gByte = new GByteBuilder().create();
+        ByteBuf data = Unpooled.buffer(24);
+        data.writeShortLE(3300).writeShortLE(3310).writeShortLE(3290);
+        data.writeShort(-2).writeShort(7);
+        data.writeLongLE(9L);
+        data.writeBytes(new byte[]{4, 5});
+        data.writeShort(60000).writeShort(1);
+
+        Cells cells = gByte.fromByteBuf(data.duplicate(), Cells.class, 1);
+        assertArrayEquals(new int[]{3300, 3310, 3290}, cells.getVoltages());
+        assertArrayEquals(new short[]{-2, 7}, cells.getTemperatures());
+        assertArrayEquals(new long[]{9L}, cells.getCounters());
+        assertArrayEquals(new byte[]{4, 5}, cells.getFlags());
+        assertArrayEquals(new int[]{60000, 1}, cells.getSamples());
+
+        ByteBuf actual = Unpooled.buffer(24);
+        gByte.toByteBuf(actual, cells, 1);
+        assertEquals(data, actual);
+    }
+
+    @org.junit.jupiter.api.Test
+    void testByteBufSlice() {
+        GByte gByte = new GByteBuilder().create();
+        ByteBuf data = Unpooled.buffer(8);
+        data.writeShortLE(4).writeBytes(new byte[]{1, 2, 3, 4}).writeBytes(new byte[]{5, 6});
+
+        Chunk chunk = gByte.fromByteBuf(data, Chunk.class, 1);
+        assertEquals(2, data.refCnt());
+        assertEquals(Unpooled.wrappedBuffer(new byte[]{1, 2, 3, 4}), chunk.getPayload());
+        assertEquals(ByteBuffer.wrap(new byte[]{5, 6}), chunk.getTail());
+
+        CompositeByteBuf out = Unpooled.compositeBuffer();
+        gByte.toByteBuf(out, chunk, 1);
+        assertEquals(data.resetReaderIndex(), out);
+        assertEquals(3, out.numComponents());
+
+        out.release();
+        chunk.getPayload().release();
+        assertEquals(1, data.refCnt());
+    }
+
+    @org.junit.jupiter.api.Test
+    void testChecksum() {
+        Random random = new Random(7);
+        for (int length : new int[]{0, 1, 7, 8, 9, 63, 64, 65, 2047, 2048, 2049, 5000}) {
+            byte[] bytes = new byte[length + 3];
+            for (int round = 0; round < 3; round++) {
+                random.nextBytes(bytes);
+                if (round == 2) {
+                    Arrays.fill(bytes, (byte) 0xff);
+                }
+                ByteBuf buf = Unpooled.wrappedBuffer(bytes);
+
+                byte sum = 0;
+                byte xor = 0;
+                int signedSum = 0;
+                for (int i = 3; i < bytes.length; i++) {
+                    sum += bytes[i];
+                    xor ^= bytes[i];
+                    signedSum += bytes[i];
+                }
+                if (signedSum > 0xff) {
+                    signedSum = ~signedSum + 1;
+                }
+
+                assertEquals(sum, GByteUtils.accSum(buf, 3, length));
+                assertEquals(xor, GByteUtils.getXor(buf, 3, length));
+                assertEquals((byte) (signedSum & 0xff), GByteUtils.checksum(buf, 3, length));
+                assertEquals(0, buf.readerIndex());
+
+                assertEquals(xor, GByteUtils.getXor(buf.skipBytes(3)));
+                assertFalse(buf.isReadable());
+            }
+        }
+    }
+
+    @org.junit.jupiter.api.Test
+    void testModBusCRC() {
+        assertEquals(0x374b, GByteUtils.modBusCRC(Unpooled.copiedBuffer("123456789", StandardCharsets.US_ASCII)));
+
+        Random random = new Random(16);
+        for (int length : new int[]{0, 1, 7, 8, 9, 15, 16, 17, 255, 1024}) {
+            byte[] bytes = new byte[length + 2];
+            random.nextBytes(bytes);
+            ByteBuf buf = Unpooled.wrappedBuffer(bytes);
+
+            // 原双表逐字节算法
+            int hi = 0xff;
+            int lo = 0xff;
+            for (int i = 2; i < bytes.length; i++) {
+                int idx = (hi ^ bytes[i]) & 0xff;
+                hi = (lo ^ GByteUtils.gabyCRCHi[idx]) & 0xff;
+                lo = GByteUtils.gabyCRCLo[idx];
+            }
+            int expected = ((hi << 8) + lo) & 0xffff;
+
+            assertEquals(expected, GByteUtils.modBusCRC(buf, 2, length));
+            assertEquals(0, buf.readerIndex());
+
+            int crc = GByteUtils.MOD_BUS_CRC_INIT;
+            int half = length / 2;
+            crc = GByteUtils.modBusCRCUpdate(crc, buf, 2, half);
+            for (int i = 2 + half; i < bytes.length; i++) {
+                crc = GByteUtils.modBusCRCUpdate(crc, bytes[i]);
+            }
+            assertEquals(expected, GByteUtils.modBusCRCValue(crc));
+        }
+    }
+
+    @org.junit.jupiter.api.Test
+    void testFindHeaderPos() {
+        Random random = new Random(11);
+        for (int headerLength = 1; headerLength <= 2; headerLength++) {
+            int headerValue = headerLength == 1 ? 0x68 : 0x7e7f;
+            HeaderDecoder decoder = new HeaderDecoder(headerValue, headerLength);
+            for (int round = 0; round < 2000; round++) {
+                byte[] bytes = new byte[random.nextInt(40)];
+                for (int i = 0; i < bytes.length; i++) {
+                    // 集中在报文头附近的取值，覆盖首字节匹配但后续字节不匹配的情况
+                    bytes[i] = (byte) (0x66 + random.nextInt(4) + (random.nextBoolean() ? 0x18 : 0));
+                }
+                int start = bytes.length == 0 ? 0 : random.nextInt(bytes.length);
+
+                // 原逐字节mark/read/reset/skip查找
+                ByteBuf expected = Unpooled.wrappedBuffer(bytes).readerIndex(start);
+                boolean expectedFound = false;
+                if (expected.readableBytes() >= headerLength) {
+                    while (true) {
+                        int value = headerLength == 1 ? expected.getUnsignedByte(expected.readerIndex()) : expected.getUnsignedShort(expected.readerIndex());
+                        if (value == headerValue) {
+                            expectedFound = true;
+                            break;
+                        }
+                        expected.skipBytes(1);
+                        if (expected.readableBytes() < headerLength) {
+                            break;
+                        }
+                    }
+                }
+
+                ByteBuf actual = Unpooled.wrappedBuffer(bytes).readerIndex(start);
+                assertEquals(expectedFound, decoder.findHeaderPos(actual));
+                assertEquals(expected.readerIndex(), actual.readerIndex());
+            }
+        }
+
+        HeaderDecoder magic = new HeaderDecoder(new byte[]{0x68, 0x00, 0x00, 0x68});
+        ByteBuf buf = Unpooled.wrappedBuffer(new byte[]{0x68, 0x00, 0x68, 0x68, 0x00, 0x00, 0x68, 0x01});
+        assertTrue(magic.findHeaderPos(buf));
+        assertEquals(3, buf.readerIndex());
+    }
+
+    @org.junit.jupiter.api.Test
+    void testSegmentedFrames() {
+        ByteBuf stream = Unpooled.buffer();
+        for (int i = 0; i < 20; i++) {
+            stream.writeByte(0x68).writeByte(i + 1).writeZero(i).writeByte(i);
+        }
+
+        HeaderDecoder decoder = new HeaderDecoder(0x68, 1);
+        EmbeddedChannel channel = new EmbeddedChannel(decoder);
+        Random random = new Random(12);
+        while (stream.isReadable()) {
+            channel.writeInbound(stream.readRetainedSlice(Math.min(1 + random.nextInt(4), stream.readableBytes())));
+        }
+        // 一次写入多个报文时在同一次decode中全部取出
+        channel.writeInbound(stream.resetReaderIndex().retainedSlice());
+        assertEquals(20, decoder.lastBatch);
+
+        for (int i = 0; i < 40; i++) {
+            ByteBuf frame = channel.readInbound();
+            assertEquals(i % 20 + 3, frame.readableBytes());
+            assertEquals(i % 20, frame.getByte(i % 20 + 2));
+            frame.release();
+        }
+        assertNull(channel.readInbound());
+        // 每帧只定位一次报文头
+        assertEquals(40, decoder.headerFinds);
+        channel.finishAndReleaseAll();
+        stream.release();
+    }
+
+    @org.junit.jupiter.api.Test
+    void testCommandRegistry() {
+        GByte gByte = new GByteBuilder().create();
+        CommandRegistry registry = new CommandRegistry(gByte, List.of(Login.class, Heartbeat.class));
+        assertEquals(Login.class, registry.getType(0x01));
+        assertEquals(Heartbeat.class, registry.getType(0x03));
+        assertFalse(registry.contains(0x02));
+        assertFalse(registry.contains(0x1000));
+        assertThrows(IllegalArgumentException.class, () -> new CommandRegistry(gByte, List.of(Login.class, LoginV2.class)));
+        assertThrows(IllegalArgumentException.class, () -> new CommandRegistry(gByte, List.of(Address.class)));
+
+        ByteBuf in = Unpooled.wrappedBuffer(new byte[]{0x02, 0x01, 0x00});
+        Heartbeat heartbeat = (Heartbeat) registry.decode(0x03, in, 1);
+        assertEquals(2, heartbeat.getGunNo());
+        assertEquals(1, heartbeat.getStatus());
+        assertNull(registry.decode(0x02, in, 1));
+        // 未声明长度时按字段计算
+        assertEquals(3, registry.getLength(heartbeat, 1));
+
+        EmbeddedChannel channel = new EmbeddedChannel(new CommandEncoder(registry) {
+            @Override
+            protected int getVersion(ChannelHandlerContext ctx) {
+                return 207;
+            }
+
+            @Override
+            protected void encode(ChannelHandlerContext ctx, Object msg, int command, int length, int version, ByteBuf out) {
+                out.writeByte(command).writeByte(length);
+                registry.encode(out, msg, version);
+            }
+        });
+        for (int i = 0; i < 3; i++) {
+            HeartbeatReply reply = new HeartbeatReply();
+            reply.setRs(i);
+            channel.writeOutbound(reply);
+            ByteBuf frame = channel.readOutbound();
+            assertEquals("0401" + String.format("%02x", i), ByteBufUtil.hexDump(frame));
+            frame.release();
+        }
+        // getCommand/getLength每个版本只调用一次，包括超出32的版本号
+        assertEquals(2, HeartbeatReply.invocations);
+        channel.finishAndReleaseAll();
+    }
+
+    @org.junit.jupiter.api.Test
+    void testFrameWriter() {
+        GByte gByte = new GByteBuilder().create();
+        Meter meter = new Meter();
+        meter.setTemperature(25);
+        meter.setCount(7);
+        ByteBuf body = Unpooled.buffer();
+        gByte.toByteBuf(body, meter, 1);
+
+        // 0x68 长度 数据域 异或校验，长度含校验码
+        FrameWriter xorWriter = new FrameWriter(ByteOrder.LITTLE_ENDIAN, 1, 1, 0, 1, FrameChecksum.XOR);
+        ByteBuf header = Unpooled.wrappedBuffer(new byte[]{0x68, 0x00});
+        ByteBuf frame = xorWriter.encode(PooledByteBufAllocator.DEFAULT, header, gByte, meter, 1);
+        assertEquals(18, frame.capacity());
+        assertEquals(18, frame.readableBytes());
+        assertEquals(16, frame.getUnsignedByte(1));
+        assertEquals(body, frame.slice(2, 15));
+        assertEquals(GByteUtils.getXor(frame, 1, 16), frame.getByte(17));
+        assertEquals(0, header.readerIndex());
+
+        EmbeddedChannel channel = new EmbeddedChannel(new HeaderDecoder(0x68, 1));
+        channel.writeInbound(frame);
+        ByteBuf decoded = channel.readInbound();
+        assertEquals(18, decoded.readableBytes());
+        decoded.release();
+        channel.finishAndReleaseAll();
+
+        // 大端2字节长度只含数据域，CRC从报文头开始计算
+        FrameWriter crcWriter = new FrameWriter(ByteOrder.BIG_ENDIAN, 2, 2, 2, 0, FrameChecksum.CRC16_MODBUS);
+        ByteBuf out = Unpooled.buffer().writeByte(0xff);
+        crcWriter.write(out, Unpooled.wrappedBuffer(new byte[]{0x7e, 0x7f, 0, 0}), gByte, meter, 1);
+        assertEquals(1 + 4 + 15 + 2, out.readableBytes());
+        assertEquals(15, out.getUnsignedShort(3));
+        assertEquals(GByteUtils.modBusCRC(out, 1, 19), out.getUnsignedShort(20));
+        body.release();
+    }
+
+    @org.junit.jupiter.api.Test
+    void testRunningChecksum() {
+        GByte gByte = new GByteBuilder().create();
+        Meter meter = new Meter();
+        meter.setVoltage(new BigDecimal("2.20"));
+        meter.setEnergy(990L);
+        meter.setCount(0x0a0b0c);
+
+        for (FrameChecksum type : FrameChecksum.values()) {
+            FrameWriter writer = new FrameWriter(ByteOrder.LITTLE_ENDIAN, 1, 1, 0, 1, type);
+            ByteBuf frame = writer.encode(PooledByteBufAllocator.DEFAULT, Unpooled.wrappedBuffer(new byte[]{0x68, 0x00}), gByte, meter, 1);
+
+            RunningChecksum checksum = new RunningChecksum(type).update(frame, 1, 1);
+            Meter actual = gByte.fromByteBuf(frame.skipBytes(2), Meter.class, 1, checksum);
+            assertEquals(meter, actual);
+            assertEquals(type.compute(frame, 1, 16), checksum.getValue());
+            assertTrue(checksum.matches(frame, 17));
+
+            frame.setByte(5, frame.getByte(5) + 1);
+            checksum.reset().update(frame, 1, 1);
+            gByte.fromByteBuf(frame.readerIndex(2), Meter.class, 1, checksum);
+            assertEquals(type == FrameChecksum.NONE, checksum.matches(frame, 17));
+            frame.release();
+        }
+    }
+
+    private static final class HeaderDecoder extends BaseDecoder {
+
+        private int headerFinds;
+
+        private int lastBatch;
+
+        HeaderDecoder(int headerValue, int headerLength) {
+            super(ByteOrder.LITTLE_ENDIAN, 1024, headerLength, 1, 0, 0, true, headerValue, headerLength);
+        }
+
+        HeaderDecoder(byte[] header) {
+            super(ByteOrder.LITTLE_ENDIAN, 1024, 0, 1, 0, 0, true, header);
+        }
+
+        @Override
+        protected boolean findHeaderPos(ByteBuf in) {
+            boolean found = super.findHeaderPos(in);
+            if (found) {
+                headerFinds++;
+            }
+            return found;
+        }
+
+        @Override
+        protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) throws Exception {
+            int count = forEachCompletePacket(in, frame -> out.add(frame.retain()));
+            if (count > 0) {
+                lastBatch = count;
+            }
+        }
+    }
+
     @Data
     public static class Address {
 
@@ -89,4 +824,217 @@ class GByteTest {
         private byte[] data;
 
     }
-}
\ No newline at end of file
+
+    @Data
+    public static class Meter {
+
+        @GByteField(length = 2, offsetType = Constant.NUMBER_OFFSET_DIVIDE, offsetNum = 100)
+        private BigDecimal voltage;
+
+        @GByteField(length = 2, offsetType = Constant.NUMBER_OFFSET_SUBTRACT, offsetNum = 40)
+        private int temperature;
+
+        @GByteField(length = 8, offsetType = Constant.NUMBER_OFFSET_MULTIPLY, offsetNum = 10)
+        private long energy;
+
+        @GByteField(length = 3, littleEndian = false)
+        private Integer count;
+    }
+
+    @Data
+    public static class Reading {
+
+        @GByteField(length = 4, offsetType = Constant.NUMBER_OFFSET_DIVIDE, offsetNum = 10000)
+        private Fixed energy;
+
+        @GByteField(length = 2, offsetType = Constant.NUMBER_OFFSET_DIVIDE, offsetNum = 10)
+        private Fixed power;
+
+        @GByteField(length = 4, stringType = Constant.STRING_BCD, offsetType = Constant.NUMBER_OFFSET_DIVIDE, offsetNum = 100)
+        private Fixed amount;
+
+        @GByteField(length = 8, offsetType = Constant.NUMBER_OFFSET_DIVIDE, offsetNum = 4)
+        private Fixed ratio;
+    }
+
+    public static class Normalized {
+
+        @GByteField(length = 4)
+        private String code;
+
+        @GByteField(length = 1)
+        private int count;
+
+        public String getCode() {
+            return code;
+        }
+
+        public void setCode(String code) {
+            this.code = code.toUpperCase();
+        }
+
+        public int getCount() {
+            return count + 1;
+        }
+
+        public void setCount(int count) {
+            this.count = count;
+        }
+    }
+
+    public enum GunState {
+        IDLE, CHARGING, FAULT
+    }
+
+    @Data
+    public static class Nibbles {
+
+        @GByteField(length = 1, bitOffset = 4, bitLength = 4)
+        private int high;
+
+        @GByteField(length = 1, bitOffset = 0, bitLength = 4)
+        private int low;
+    }
+
+    @Data
+    public static class GunStatus {
+
+        @GByteField(length = 1, bitOffset = 0, bitLength = 1)
+        private boolean alarm;
+
+        @GByteField(length = 1, bitOffset = 1, bitLength = 2)
+        private int mode;
+
+        @GByteField(length = 1, bitOffset = 4, bitLength = 4)
+        private GunState state;
+
+        @GByteField(length = 2, littleEndian = false, bitOffset = 0, bitLength = 12)
+        private Integer flags;
+
+        @GByteField(length = 2, littleEndian = false, bitOffset = 12, bitLength = 4)
+        private short code;
+
+        @GByteField(length = 2)
+        private int voltage;
+    }
+
+    @Data
+    public static class Card {
+
+        @GByteField(length = 10, stringType = Constant.STRING_BCD, stringFill = 0xff)
+        private String cardNo;
+
+        @GByteField(length = 6, stringType = Constant.STRING_BCD)
+        private long time;
+
+        @GByteField(length = 2, stringType = Constant.STRING_BCD)
+        private int year;
+
+        @GByteField(length = 3, stringType = Constant.STRING_BCD, offsetType = Constant.NUMBER_OFFSET_DIVIDE, offsetNum = 100)
+        private BigDecimal balance;
+    }
+
+    @Data
+    public static class Serial {
+
+        @GByteField(length = 6, stringFill = '0')
+        private String no;
+    }
+
+    @Data
+    public static class Pile {
+
+        @GByteField(length = 8, stringType = Constant.STRING_BCD)
+        private String code;
+
+        @GByteField(length = 6, stringFill = 0xff)
+        private String name;
+
+        @GByteField(length = 10, stringType = Constant.STRING_UTF8)
+        private String remark;
+    }
+
+    @Data
+    public static class Cells {
+
+        @GByteField(length = 3, elementLength = 2)
+        private int[] voltages;
+
+        @GByteField(length = 2, littleEndian = false)
+        private short[] temperatures;
+
+        @GByteField(length = 1, elementLength = 8)
+        private long[] counters;
+
+        @GByteField(length = 2)
+        private byte[] flags;
+
+        /**
+         * 未设置elementLength，2个元素各2字节
+         */
+        @GByteField(length = 2, littleEndian = false)
+        private int[] samples;
+    }
+
+    @Data
+    public static class Chunk {
+
+        @GByteField(length = 2)
+        private int size;
+
+        @GByteField(length = 4)
+        private ByteBuf payload;
+
+        @GByteField
+        private ByteBuffer tail;
+    }
+
+    @Data
+    @GByteCommand(0x01)
+    public static class Login {
+
+        @GByteField(length = 8, stringType = Constant.STRING_BCD)
+        private String pileCode;
+    }
+
+    @Data
+    @GByteCommand(0x01)
+    public static class LoginV2 {
+
+        @GByteField(length = 8, stringType = Constant.STRING_BCD)
+        private String pileCode;
+    }
+
+    @Data
+    public static class Heartbeat {
+
+        @GByteField(length = 1)
+        private int gunNo;
+
+        @GByteField(length = 2)
+        private int status;
+
+        public static int getCommand() {
+            return 0x03;
+        }
+    }
+
+    @Data
+    public static class HeartbeatReply {
+
+        private static int invocations;
+
+        @GByteField(length = 1)
+        private int rs;
+
+        public int getCommand(Integer protocolDocVersion) {
+            invocations++;
+            return 0x04;
+        }
+
+        public int getLength(Integer protocolDocVersion) {
+            invocations++;
+            return 1;
+        }
+    }
+}